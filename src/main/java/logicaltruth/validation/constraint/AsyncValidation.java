@@ -0,0 +1,219 @@
+package logicaltruth.validation.constraint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * One asynchronous validation, see {@link Constraint#validateAsync(Object, ValidationContext)}. The
+ * validation is run in passes: asynchronous checks reached in a pass are started, and those still
+ * running stop their enclosing {@code and} chain like {@link ValidationStatus#BREAK}, so checks
+ * guarded by them are not started early. Once they complete the validation runs again with their
+ * results, until a pass reaches no running check; that last pass gives the result. Checks on
+ * independent parts of the value are started in the same pass and run concurrently, and no thread
+ * waits for them.
+ * <p>
+ * Batched lookups queue their keys during a pass instead, and every lookup is called once with
+ * all the keys queued for it at the end of the pass, across all the values of
+ * {@link #validateAll(Constraint, List)}.
+ * <p>
+ * Checks are told apart by the check and the {@code equals} of the value, so a value derived anew
+ * on every pass still finds its running check. A validation that has not settled after
+ * {@value #MAX_PASSES} passes fails with an IllegalStateException.
+ */
+public class AsyncValidation {
+  private static final int MAX_PASSES = 64;
+
+  private final ConcurrentMap<Key, CompletableFuture<?>> started = new ConcurrentHashMap<>();
+  private final Map<Object, Batch<?, ?>> batches = new LinkedHashMap<>();
+  private final List<CompletableFuture<?>> pending = new ArrayList<>();
+
+  AsyncValidation() {
+  }
+
+  static <K> CompletableFuture<ValidationResult> validate(Constraint<K> constraint, K value, ValidationContext context) {
+    ValidationResult[] results = new ValidationResult[1];
+    return new AsyncValidation().pass(constraint, Collections.singletonList(value), results, context, 1)
+      .thenApply(ignored -> results[0]);
+  }
+
+  /**
+   * Validates every value without blocking, sharing batched lookups across all of them.
+   */
+  public static <K> CompletableFuture<List<ValidationResult>> validateAll(Constraint<K> constraint, List<? extends K> values) {
+    ValidationResult[] results = new ValidationResult[values.size()];
+    return new AsyncValidation().pass(constraint, values, results, new ValidationContext(), 1)
+      .thenApply(ignored -> Arrays.asList(results));
+  }
+
+  /**
+   * The outcome of {@code check} on {@code value} when it is known, otherwise starts it if needed
+   * and returns null.
+   */
+  public <K, R> R result(Object check, K value, Function<K, ? extends CompletionStage<R>> start) {
+    CompletableFuture<R> future = (CompletableFuture<R>) started.computeIfAbsent(new Key(check, value),
+      key -> start.apply(value).toCompletableFuture());
+    return known(future);
+  }
+
+  /**
+   * The answer of {@code lookup} for {@code key}, queuing the key for the lookup's next call when it
+   * was not asked for yet; keys the lookup leaves out of its answer map to null. Answers that are not
+   * done yet count as running checks of the current pass.
+   */
+  public <T, R> CompletableFuture<R> batchAnswer(T key, Function<Set<T>, ? extends CompletionStage<? extends Map<T, R>>> lookup) {
+    CompletableFuture<R> future;
+    synchronized(batches) {
+      Batch<T, R> batch = (Batch<T, R>) batches.computeIfAbsent(lookup, l -> new Batch<>(lookup));
+      future = batch.get(key);
+    }
+    known(future);
+    return future;
+  }
+
+  /**
+   * Number of checks found still running in the current pass.
+   */
+  public int getPendingCount() {
+    synchronized(pending) {
+      return pending.size();
+    }
+  }
+
+  private <R> R known(CompletableFuture<R> future) {
+    if(future.isDone()) {
+      return future.join();
+    }
+    synchronized(pending) {
+      pending.add(future);
+    }
+    return null;
+  }
+
+  private <K> CompletableFuture<Void> pass(Constraint<K> constraint, List<? extends K> values, ValidationResult[] results, ValidationContext context, int pass) {
+    try {
+      context.setAsyncValidation(this);
+      for(int i = 0; i < results.length; i++) {
+        if(results[i] == null) {
+          int before = getPendingCount();
+          ValidationResult result = constraint.validate(values.get(i), context);
+          if(getPendingCount() == before) {
+            results[i] = result;
+          }
+        }
+      }
+    } catch(RuntimeException e) {
+      CompletableFuture<Void> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    } finally {
+      context.setAsyncValidation(null);
+    }
+
+    synchronized(batches) {
+      for(Batch<?, ?> batch : batches.values()) {
+        batch.dispatch();
+      }
+    }
+    CompletableFuture<?>[] waiting;
+    synchronized(pending) {
+      waiting = pending.toArray(new CompletableFuture<?>[0]);
+      pending.clear();
+    }
+
+    if(waiting.length == 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+    if(pass == MAX_PASSES) {
+      CompletableFuture<Void> failed = new CompletableFuture<>();
+      failed.completeExceptionally(new IllegalStateException("Asynchronous validation still running checks after " + pass + " passes"));
+      return failed;
+    }
+    return CompletableFuture.allOf(waiting).thenCompose(ignored -> pass(constraint, values, results, context, pass + 1));
+  }
+
+  private static final class Batch<T, R> {
+    private final Function<Set<T>, ? extends CompletionStage<? extends Map<T, R>>> lookup;
+    private final Map<T, CompletableFuture<R>> answers = new LinkedHashMap<>();
+    private final Set<T> queued = new LinkedHashSet<>();
+
+    private Batch(Function<Set<T>, ? extends CompletionStage<? extends Map<T, R>>> lookup) {
+      this.lookup = lookup;
+    }
+
+    private CompletableFuture<R> get(T key) {
+      return answers.computeIfAbsent(key, k -> {
+        queued.add(k);
+        return new CompletableFuture<>();
+      });
+    }
+
+    private void dispatch() {
+      if(queued.isEmpty()) {
+        return;
+      }
+      Set<T> keys = new LinkedHashSet<>(queued);
+      queued.clear();
+      List<CompletableFuture<R>> futures = new ArrayList<>(keys.size());
+      for(T key : keys) {
+        futures.add(answers.get(key));
+      }
+
+      CompletionStage<? extends Map<T, R>> answer;
+      try {
+        answer = lookup.apply(Collections.unmodifiableSet(keys));
+        if(answer == null) {
+          throw new NullPointerException("Batch lookup returned no CompletionStage for " + keys);
+        }
+      } catch(RuntimeException e) {
+        futures.forEach(future -> future.completeExceptionally(e));
+        return;
+      }
+      answer.whenComplete((map, error) -> {
+        if(error == null && map == null) {
+          error = new NullPointerException("Batch lookup completed without a map for " + keys);
+        }
+        int i = 0;
+        for(T key : keys) {
+          CompletableFuture<R> future = futures.get(i++);
+          if(error != null) {
+            future.completeExceptionally(error);
+          } else {
+            future.complete(map.get(key));
+          }
+        }
+      });
+    }
+  }
+
+  private static final class Key {
+    private final Object check;
+    private final Object value;
+
+    private Key(Object check, Object value) {
+      this.check = check;
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key && ((Key) o).check == check && Objects.equals(((Key) o).value, value);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(check) + Objects.hashCode(value);
+    }
+  }
+}
@@ -1,86 +1,109 @@
 package logicaltruth.validation.constraint;
 
+import logicaltruth.validation.constraint.impl.AndConstraint;
+import logicaltruth.validation.constraint.impl.BreakConstraint;
+import logicaltruth.validation.constraint.impl.MemoizingConstraint;
+import logicaltruth.validation.constraint.impl.OrConstraint;
+import logicaltruth.validation.constraint.impl.ThrowingConstraint;
+
+import java.util.concurrent.CompletableFuture;
+
 @FunctionalInterface
 public interface Constraint<K> {
 
   ValidationResult validate(K value);
 
-  default Constraint<K> and(Constraint<K> other) {
-    return value -> {
-      ValidationResult firstResult = Constraint.this.validate(value);
-      if(firstResult.isBreak()) {
-        return firstResult;
-      }
+  /**
+   * Validates the value with caller supplied options, e.g. {@link ValidationContext#failFast()}.
+   */
+  default ValidationResult validate(K value, ValidationContext context) {
+    ValidationResult result = new ValidationResult(value);
+    context.reset(result);
+    ValidationStatus status = validateNested(value, context);
+    if(status == ValidationStatus.VALID) {
+      return result;
+    }
+    result.setBreak(status == ValidationStatus.BREAK);
+    if(context.isTruncated()) {
+      result.truncate(context.getMaxViolations());
+    }
+    return result;
+  }
 
-      ValidationResult otherResult = other.validate(value);
-      if(!firstResult.isValid() && !otherResult.isValid()) {
-        ValidationResult result = new ValidationResult(value);
-        result.addConstraintViolations(firstResult.getConstraintViolations());
-        result.addConstraintViolations(otherResult.getConstraintViolations());
-        return result;
-      }
+  /**
+   * Streams the violations to {@code sink} as they are found instead of collecting them into a
+   * result. Both the context and the sink may be reused for the next validation on the same thread;
+   * until then {@link ValidationContext#isTruncated()} tells whether violations were dropped.
+   */
+  default boolean validate(K value, ValidationContext context, ViolationSink sink) {
+    context.reset(sink);
+    return validateNested(value, context) == ValidationStatus.VALID;
+  }
 
-      if(!firstResult.isValid())
-        return firstResult;
-      if(!otherResult.isValid())
-        return otherResult;
+  /**
+   * Validates the value without blocking on asynchronous constraints, see {@link AsyncValidation}.
+   */
+  default CompletableFuture<ValidationResult> validateAsync(K value) {
+    return validateAsync(value, new ValidationContext());
+  }
 
-      return new ValidationResult(value);
-    };
+  default CompletableFuture<ValidationResult> validateAsync(K value, ValidationContext context) {
+    return AsyncValidation.validate(this, value, context);
   }
 
-  default Constraint<K> or(Constraint<K> other) {
-    return value -> {
-      ValidationResult firstResult = Constraint.this.validate(value);
-      if(firstResult.isValid()) {
-        return new ValidationResult(value);
-      }
+  /**
+   * Yes/no answer with the same meaning as {@code validate(value).isValid()}. Library constraints
+   * evaluate their predicates directly and build no results or violations.
+   */
+  default boolean test(K value) {
+    return validate(value).isValid();
+  }
 
-      if(firstResult.isBreak()) {
-        return firstResult;
-      }
-      ValidationResult otherResult = other.validate(value);
-      if(otherResult.isValid()) {
-        return new ValidationResult(value);
+  /**
+   * Validates the value on behalf of an enclosing constraint, reporting violations to
+   * {@link ValidationContext#report(ConstraintViolation)} at the location given by
+   * {@link ValidationContext#getPath()}.
+   */
+  default ValidationStatus validateNested(K value, ValidationContext context) {
+    ValidationResult result = validate(value);
+    if(result.isValid()) {
+      return ValidationStatus.VALID;
+    }
+    ViolationPath base = context.isRoot() ? null : context.getPath();
+    for(ConstraintViolation cv : result.getConstraintViolations()) {
+      if(base != null) {
+        cv.rebase(base);
       }
+      context.report(cv);
+    }
+    return result.isBreak() ? ValidationStatus.BREAK : ValidationStatus.INVALID;
+  }
 
+  default Constraint<K> and(Constraint<K> other) {
+    return new AndConstraint<>(this, other);
+  }
 
-      ValidationResult result = new ValidationResult(value);
-      result.addConstraintViolations(firstResult.getConstraintViolations());
-      result.addConstraintViolations(otherResult.getConstraintViolations());
-      return result;
-    };
+  default Constraint<K> or(Constraint<K> other) {
+    return new OrConstraint<>(this, other);
   }
 
   default Constraint<K> orElseThrow() {
-    return value -> {
-      ValidationResult result = Constraint.this.validate(value);
-      if(!result.isValid()) {
-        //TODO
-        throw new RuntimeException("INVALID");
-      }
-      return result;
-    };
+    return new ThrowingConstraint<>(this, null);
   }
 
   default Constraint<K> orElseThrow(RuntimeException t) {
-    return value -> {
-      ValidationResult result = Constraint.this.validate(value);
-      if(!result.isValid()) {
-        throw t;
-      }
-      return result;
-    };
+    return new ThrowingConstraint<>(this, t);
   }
 
   default Constraint<K> orElseBreak() {
-    return value -> {
-      ValidationResult result = Constraint.this.validate(value);
-      if(!result.isValid()) {
-        result.setBreak(true);
-        return result;
-      }
-      return result;
-    };
+    return new BreakConstraint<>(this);
+  }
+
+  /**
+   * Caches the outcome of this constraint for up to {@code maxSize} distinct values, see
+   * {@link MemoizingConstraint}.
+   */
+  default MemoizingConstraint<K> memoize(int maxSize) {
+    return new MemoizingConstraint<>(this, maxSize);
   }
 }
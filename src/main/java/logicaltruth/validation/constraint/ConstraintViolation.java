@@ -1,28 +1,137 @@
 package logicaltruth.validation.constraint;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
 public class ConstraintViolation {
   public static final String ROOT_CONTEXT = ".";
 
-  private String context = ROOT_CONTEXT;
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  private ViolationPath path;
+  private String context;
+  private ViolationCode code;
+  private Object[] arguments;
   private String message;
+  // messages rendered so far by locale, never modified once published
+  private volatile Map<Locale, String> rendered = Collections.emptyMap();
 
   public ConstraintViolation(String message) {
+    this(message, ViolationPath.ROOT);
+  }
+
+  public ConstraintViolation(String message, ViolationPath path) {
     this.message = message;
+    this.arguments = NO_ARGUMENTS;
+    this.path = path;
+  }
+
+  /**
+   * Violation identified by a code and its arguments; the message is only rendered when it is read.
+   */
+  public ConstraintViolation(ViolationCode code, Object[] arguments, ViolationPath path) {
+    this.code = code;
+    this.arguments = arguments;
+    this.path = path;
+  }
+
+  public ViolationCode getCode() {
+    return code;
+  }
+
+  public Object[] getArguments() {
+    return arguments.clone();
   }
 
   public String getMessage() {
+    return getMessage(Locale.getDefault());
+  }
+
+  public String getMessage(Locale locale) {
+    if(code == null) {
+      return message;
+    }
+    Map<Locale, String> cached = rendered;
+    String message = cached.get(locale);
+    if(message == null) {
+      message = code.render(locale, arguments);
+      // racing renders of another locale may drop one of the messages, which is only rendered again
+      Map<Locale, String> updated = new HashMap<>(cached);
+      updated.put(locale, message);
+      rendered = Collections.unmodifiableMap(updated);
+    }
     return message;
   }
 
+  public ViolationPath getPath() {
+    return path;
+  }
+
   public String getContext() {
+    if(context == null) {
+      context = path.toString();
+    }
     return context;
   }
 
   public void appendContext(String name) {
-    if(ROOT_CONTEXT.equals(context)) {
-      context = name;
-    } else {
-      context = name.concat(context);
+    rebase(ViolationPath.ROOT.segment(name));
+  }
+
+  public void rebase(ViolationPath base) {
+    path = path.rebase(base);
+    context = null;
+  }
+
+  /**
+   * A copy of this violation under {@code base}, leaving this one untouched, e.g. to report a
+   * cached violation again at another location.
+   */
+  public ConstraintViolation rebased(ViolationPath base) {
+    return copy(path.rebase(base));
+  }
+
+  /**
+   * A copy of this violation found under {@code from}, moved under {@code to}.
+   */
+  public ConstraintViolation relocated(ViolationPath from, ViolationPath to) {
+    return copy(path.relativize(from).rebase(to));
+  }
+
+  private ConstraintViolation copy(ViolationPath path) {
+    ConstraintViolation copy = code == null
+      ? new ConstraintViolation(message, path)
+      : new ConstraintViolation(code, arguments, path);
+    copy.rendered = rendered;
+    return copy;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if(this == o) {
+      return true;
+    }
+    if(!(o instanceof ConstraintViolation)) {
+      return false;
     }
+    ConstraintViolation that = (ConstraintViolation) o;
+    return Objects.equals(code, that.code)
+      && Arrays.equals(arguments, that.arguments)
+      && Objects.equals(message, that.message)
+      && path.equals(that.path);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * Objects.hashCode(code) + Arrays.hashCode(arguments)) + path.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return getContext() + " " + (code == null ? message : code + Arrays.toString(arguments));
   }
 }
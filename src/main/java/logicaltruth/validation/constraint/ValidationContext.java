@@ -0,0 +1,327 @@
+package logicaltruth.validation.constraint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State threaded through nested validation. Holds the options of a validation (fail-fast, violation
+ * budget), the {@link ViolationSink} violations are reported to, and the location currently being
+ * validated as a stack of segments; the matching {@link ViolationPath} is only materialized when a
+ * violation asks for it, and is shared by every violation under the same prefix.
+ * <p>
+ * A context is reset at the start of every validation, so one instance can be reused for
+ * consecutive validations on the same thread, but not for concurrent or reentrant ones.
+ */
+public class ValidationContext {
+  private static final int FIELD = -1;
+  private static final int KEY = -2;
+
+  private boolean failFast;
+  private int failFastScopes;
+  private int maxViolations = Integer.MAX_VALUE;
+  private int violationCount;
+  private boolean dropped;
+
+  private ViolationSink sink;
+  private int deferDepth;
+  private List<ConstraintViolation> deferred;
+  // whether violations had been dropped when each open deferral started
+  private boolean[] droppedBefore = new boolean[4];
+
+  private AsyncValidation asyncValidation;
+  private Map<Visit, Object> visits;
+
+  private int depth;
+  private Object[] names = new Object[8];
+  private int[] indexes = new int[8];
+  private ViolationPath[] paths = new ViolationPath[8];
+
+  public ValidationContext() {
+    paths[0] = ViolationPath.ROOT;
+  }
+
+  /**
+   * Context that stops schemas, collection validators and {@code and} at the first violation.
+   */
+  public static ValidationContext failFast() {
+    ValidationContext context = new ValidationContext();
+    context.setFailFast(true);
+    return context;
+  }
+
+  public boolean isFailFast() {
+    return failFast || failFastScopes > 0;
+  }
+
+  public void setFailFast(boolean failFast) {
+    this.failFast = failFast;
+  }
+
+  /**
+   * Turns on fail-fast mode until the matching {@link #exitFailFast()}, e.g. for a fail-fast schema.
+   */
+  public void enterFailFast() {
+    failFastScopes++;
+  }
+
+  public void exitFailFast() {
+    failFastScopes--;
+  }
+
+  /**
+   * Context that keeps at most {@code maxViolations} violations and stops at the first one beyond
+   * that, which is dropped; the result is then marked as truncated.
+   */
+  public static ValidationContext maxViolations(int maxViolations) {
+    ValidationContext context = new ValidationContext();
+    context.setMaxViolations(maxViolations);
+    return context;
+  }
+
+  public int getMaxViolations() {
+    return maxViolations;
+  }
+
+  public void setMaxViolations(int maxViolations) {
+    if(maxViolations < 1) {
+      throw new IllegalArgumentException("maxViolations must be at least 1");
+    }
+    this.maxViolations = maxViolations;
+  }
+
+  /**
+   * Prepares the context for a new validation reporting to {@code sink}.
+   */
+  public void reset(ViolationSink sink) {
+    this.sink = sink;
+    failFastScopes = 0;
+    violationCount = 0;
+    dropped = false;
+    deferDepth = 0;
+    if(deferred != null) {
+      deferred.clear();
+    }
+    if(visits != null) {
+      visits.clear();
+    }
+    Arrays.fill(names, null);
+    Arrays.fill(paths, 1, paths.length, null);
+    paths[0] = ViolationPath.ROOT;
+    depth = 0;
+  }
+
+  /**
+   * A context for validating the value at the current location on another thread: same options,
+   * the violation budget that is left, paths continuing from the current one, and violations going
+   * to {@code sink}.
+   */
+  public ValidationContext fork(ViolationSink sink) {
+    ValidationContext fork = new ValidationContext();
+    fork.failFast = isFailFast();
+    fork.maxViolations = Math.max(1, maxViolations - violationCount);
+    fork.sink = sink;
+    fork.asyncValidation = asyncValidation;
+    fork.visits = visits == null ? null : new HashMap<>(visits);
+    fork.paths[0] = getPath();
+    return fork;
+  }
+
+  /**
+   * Takes over the outcome of a {@link #fork} whose violations were reported here: a violation the
+   * fork dropped for lack of budget would have been dropped here too.
+   */
+  public void join(ValidationContext fork) {
+    dropped |= fork.dropped;
+  }
+
+  /**
+   * Reports a violation found at the current location. Violations beyond the budget are dropped.
+   */
+  public void report(ConstraintViolation violation) {
+    if(violationCount >= maxViolations) {
+      dropped = true;
+      return;
+    }
+    violationCount++;
+    if(deferDepth > 0) {
+      deferred.add(violation);
+    } else {
+      sink.accept(violation);
+    }
+  }
+
+  public void countViolations(int count) {
+    violationCount += count;
+  }
+
+  /**
+   * Takes back violations that were counted but may still be dropped, e.g. by {@code or} while its
+   * other branch runs.
+   */
+  public void discardViolations(int count) {
+    violationCount -= count;
+  }
+
+  /**
+   * Whether a violation beyond the budget was dropped in the current validation. Stays readable
+   * after the validation, e.g. after {@link Constraint#validate(Object, ValidationContext, ViolationSink)}.
+   */
+  public boolean isTruncated() {
+    return dropped;
+  }
+
+  /**
+   * Whether constraints should skip their remaining children after a failure, either because of
+   * fail-fast mode or because a violation beyond the budget was dropped.
+   */
+  public boolean shouldStop() {
+    return isFailFast() || dropped;
+  }
+
+  /**
+   * Holds back violations reported from now on until {@link #commit(int)} or
+   * {@link #rollback(int)} is called with the returned mark.
+   */
+  public int defer() {
+    if(deferred == null) {
+      deferred = new ArrayList<>();
+    }
+    if(deferDepth == droppedBefore.length) {
+      droppedBefore = Arrays.copyOf(droppedBefore, deferDepth * 2);
+    }
+    droppedBefore[deferDepth++] = dropped;
+    return deferred.size();
+  }
+
+  public int deferredCount(int mark) {
+    return deferred.size() - mark;
+  }
+
+  /**
+   * The violations held back since {@code mark}, still to be committed or rolled back.
+   */
+  public List<ConstraintViolation> getDeferred(int mark) {
+    return new ArrayList<>(deferred.subList(mark, deferred.size()));
+  }
+
+  public void commit(int mark) {
+    deferDepth--;
+    if(deferDepth == 0) {
+      for(int i = mark; i < deferred.size(); i++) {
+        sink.accept(deferred.get(i));
+      }
+      deferred.subList(mark, deferred.size()).clear();
+    }
+  }
+
+  public void rollback(int mark) {
+    deferDepth--;
+    // violations dropped in the branch rolled back would not have been kept anyway
+    dropped = droppedBefore[deferDepth];
+    violationCount -= deferredCount(mark);
+    deferred.subList(mark, deferred.size()).clear();
+  }
+
+  /**
+   * The asynchronous validation in progress, or null when validating synchronously.
+   */
+  public AsyncValidation getAsyncValidation() {
+    return asyncValidation;
+  }
+
+  void setAsyncValidation(AsyncValidation asyncValidation) {
+    this.asyncValidation = asyncValidation;
+  }
+
+  /**
+   * What {@code validator} recorded about the very instance {@code value} earlier in this
+   * validation, or null, e.g. to validate a bean shared across an object graph only once.
+   */
+  public Object getVisit(Object validator, Object value) {
+    return visits == null ? null : visits.get(new Visit(validator, value));
+  }
+
+  public void putVisit(Object validator, Object value, Object state) {
+    if(visits == null) {
+      visits = new HashMap<>();
+    }
+    visits.put(new Visit(validator, value), state);
+  }
+
+  public void enterField(String name) {
+    push(name, FIELD);
+  }
+
+  public void enterIndex(int index) {
+    push(null, index);
+  }
+
+  public void enterKey(Object key) {
+    push(key, KEY);
+  }
+
+  public void exit() {
+    paths[depth] = null;
+    names[depth] = null;
+    depth--;
+  }
+
+  public boolean isRoot() {
+    return depth == 0 && paths[0].isRoot();
+  }
+
+  public ViolationPath getPath() {
+    int materialized = depth;
+    while(paths[materialized] == null) {
+      materialized--;
+    }
+    for(int i = materialized + 1; i <= depth; i++) {
+      ViolationPath parent = paths[i - 1];
+      switch(indexes[i]) {
+        case FIELD:
+          paths[i] = parent.field((String) names[i]);
+          break;
+        case KEY:
+          paths[i] = parent.key(names[i]);
+          break;
+        default:
+          paths[i] = parent.index(indexes[i]);
+      }
+    }
+    return paths[depth];
+  }
+
+  private void push(Object name, int index) {
+    depth++;
+    if(depth == paths.length) {
+      names = Arrays.copyOf(names, depth * 2);
+      indexes = Arrays.copyOf(indexes, depth * 2);
+      paths = Arrays.copyOf(paths, depth * 2);
+    }
+    names[depth] = name;
+    indexes[depth] = index;
+  }
+
+  private static final class Visit {
+    private final Object validator;
+    private final Object value;
+
+    private Visit(Object validator, Object value) {
+      this.validator = validator;
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Visit && ((Visit) o).validator == validator && ((Visit) o).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(validator) + System.identityHashCode(value);
+    }
+  }
+}
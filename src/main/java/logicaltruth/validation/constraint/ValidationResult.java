@@ -1,41 +1,104 @@
 package logicaltruth.validation.constraint;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-public class ValidationResult {
+public class ValidationResult implements ViolationSink {
+
+  private static final ValidationResult VALID = new ValidationResult(null);
 
   private boolean isBreak;
 
+  private boolean isTruncated;
+
   private Object value;
 
-  private List<ConstraintViolation> list = new ArrayList<>();
+  private List<ConstraintViolation> list;
 
   public ValidationResult(Object value) {
     this.value = value;
   }
 
+  /**
+   * Shared, immutable result for a successful validation. It carries no value, so it is meant for
+   * nested validation where the caller only looks at the violations.
+   */
+  public static ValidationResult valid() {
+    return VALID;
+  }
+
+  /**
+   * Successful result carrying the validated value. Falls back to the shared result for {@code null}.
+   */
+  public static ValidationResult valid(Object value) {
+    return value == null ? VALID : new ValidationResult(value);
+  }
+
   public boolean isBreak() {
     return isBreak;
   }
 
   public void setBreak(boolean aBreak) {
+    checkMutable();
     isBreak = aBreak;
   }
 
+  /**
+   * Whether violations beyond the budget of the validation were dropped.
+   */
+  public boolean isTruncated() {
+    return isTruncated;
+  }
+
+  public void truncate(int maxViolations) {
+    checkMutable();
+    isTruncated = true;
+    if(list != null && list.size() > maxViolations) {
+      list = new ArrayList<>(list.subList(0, maxViolations));
+    }
+  }
+
   public boolean isValid() {
-    return list.isEmpty();
+    return list == null || list.isEmpty();
+  }
+
+  public void addConstraintViolation(ConstraintViolation cv) {
+    checkMutable();
+    if(list == null) {
+      list = new ArrayList<>();
+    }
+    list.add(cv);
+  }
+
+  @Override
+  public void accept(ConstraintViolation violation) {
+    addConstraintViolation(violation);
   }
 
   public void addConstraintViolations(List<ConstraintViolation> cv) {
-    list.addAll(cv);
+    if(cv.isEmpty()) {
+      return;
+    }
+    checkMutable();
+    if(list == null) {
+      list = new ArrayList<>(cv);
+    } else {
+      list.addAll(cv);
+    }
   }
 
   public List<ConstraintViolation> getConstraintViolations() {
-    return list;
+    return list == null ? Collections.emptyList() : list;
   }
 
   public <K> K getValue() {
     return (K) value;
   }
+
+  private void checkMutable() {
+    if(this == VALID) {
+      throw new UnsupportedOperationException("The shared valid result is immutable");
+    }
+  }
 }
@@ -0,0 +1,10 @@
+package logicaltruth.validation.constraint;
+
+/**
+ * Outcome of a nested validation. The violations themselves are reported to the
+ * {@link ValidationContext}; {@link #BREAK} is an invalid outcome raised by
+ * {@link Constraint#orElseBreak()} that makes enclosing {@code and}/{@code or} skip the rest.
+ */
+public enum ValidationStatus {
+  VALID, INVALID, BREAK
+}
@@ -0,0 +1,74 @@
+package logicaltruth.validation.constraint;
+
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Stable identifier of a kind of violation, e.g. {@link #MIN_LENGTH}. The message template is
+ * looked up per locale in the {@value #BUNDLE_NAME} resource bundle under the code, falls back to
+ * the default template, and is cached once resolved.
+ */
+public final class ViolationCode {
+  public static final String BUNDLE_NAME = "logicaltruth.validation.ValidationMessages";
+
+  public static final ViolationCode NOT_NULL = of("NOT_NULL", "must not be null");
+  public static final ViolationCode NULL = of("NULL", "must be null");
+  public static final ViolationCode MIN_LENGTH = of("MIN_LENGTH", "must have at least %s chars");
+  public static final ViolationCode MAX_LENGTH = of("MAX_LENGTH", "must have at most %s chars");
+  public static final ViolationCode CONTAINS = of("CONTAINS", "must contain %s");
+  public static final ViolationCode LESS_THAN = of("LESS_THAN", "must be less than %s");
+  public static final ViolationCode MAX = of("MAX", "must be at most %s");
+  public static final ViolationCode GREATER_THAN = of("GREATER_THAN", "must be greater than %s");
+  public static final ViolationCode MIN = of("MIN", "must be at least %s");
+
+  private final String code;
+  private final String defaultTemplate;
+  private final ConcurrentMap<Locale, String> templates = new ConcurrentHashMap<>();
+
+  private ViolationCode(String code, String defaultTemplate) {
+    this.code = code;
+    this.defaultTemplate = defaultTemplate;
+  }
+
+  public static ViolationCode of(String code, String defaultTemplate) {
+    return new ViolationCode(code, defaultTemplate);
+  }
+
+  public String getCode() {
+    return code;
+  }
+
+  public String getTemplate(Locale locale) {
+    return templates.computeIfAbsent(locale, this::lookupTemplate);
+  }
+
+  public String render(Locale locale, Object... arguments) {
+    return String.format(locale, getTemplate(locale), arguments);
+  }
+
+  private String lookupTemplate(Locale locale) {
+    try {
+      return ResourceBundle.getBundle(BUNDLE_NAME, locale).getString(code);
+    } catch(MissingResourceException e) {
+      return defaultTemplate;
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return this == o || (o instanceof ViolationCode && code.equals(((ViolationCode) o).code));
+  }
+
+  @Override
+  public int hashCode() {
+    return code.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return code;
+  }
+}
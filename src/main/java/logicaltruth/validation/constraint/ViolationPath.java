@@ -0,0 +1,144 @@
+package logicaltruth.validation.constraint;
+
+import java.util.Objects;
+
+/**
+ * Immutable location of a violation, stored as parent-linked segments. Field names are the names
+ * registered on the schema, list indexes are kept as ints and map keys as the key objects; the
+ * dotted form is only rendered by {@link #toString()}.
+ */
+public final class ViolationPath {
+  private static final int ROOT_SEGMENT = 0;
+  private static final int FIELD = 1;
+  private static final int INDEX = 2;
+  private static final int KEY = 3;
+  private static final int RAW = 4;
+
+  public static final ViolationPath ROOT = new ViolationPath(null, ROOT_SEGMENT, null, -1);
+
+  private final ViolationPath parent;
+  private final int kind;
+  private final Object name;
+  private final int index;
+
+  private ViolationPath(ViolationPath parent, int kind, Object name, int index) {
+    this.parent = parent;
+    this.kind = kind;
+    this.name = name;
+    this.index = index;
+  }
+
+  public ViolationPath field(String name) {
+    return new ViolationPath(this, FIELD, name, -1);
+  }
+
+  public ViolationPath index(int index) {
+    return new ViolationPath(this, INDEX, null, index);
+  }
+
+  public ViolationPath key(Object key) {
+    return new ViolationPath(this, KEY, key, -1);
+  }
+
+  ViolationPath segment(String rendered) {
+    return new ViolationPath(this, RAW, rendered, -1);
+  }
+
+  public ViolationPath getParent() {
+    return parent;
+  }
+
+  public boolean isRoot() {
+    return parent == null;
+  }
+
+  /**
+   * The list index of a path ending in an index segment, otherwise -1.
+   */
+  public int getIndex() {
+    return kind == INDEX ? index : -1;
+  }
+
+  /**
+   * Re-roots this path under {@code base}, e.g. {@code .street} rebased on {@code .address} becomes
+   * {@code .address.street}.
+   */
+  public ViolationPath rebase(ViolationPath base) {
+    if(isRoot()) {
+      return base;
+    }
+    ViolationPath rebasedParent = parent.rebase(base);
+    return rebasedParent == parent ? this : new ViolationPath(rebasedParent, kind, name, index);
+  }
+
+  /**
+   * The inverse of {@link #rebase(ViolationPath)}: this path with its {@code base} prefix replaced
+   * by the root.
+   */
+  public ViolationPath relativize(ViolationPath base) {
+    if(this == base || (!isRoot() && equals(base))) {
+      return ROOT;
+    }
+    if(isRoot()) {
+      throw new IllegalArgumentException("Path is not under " + base);
+    }
+    ViolationPath relativeParent = parent.relativize(base);
+    return relativeParent == parent ? this : new ViolationPath(relativeParent, kind, name, index);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if(this == o) {
+      return true;
+    }
+    if(!(o instanceof ViolationPath)) {
+      return false;
+    }
+    ViolationPath that = (ViolationPath) o;
+    if(isRoot() || that.isRoot()) {
+      return false;
+    }
+    if(kind != that.kind || index != that.index || !Objects.equals(name, that.name)) {
+      return false;
+    }
+    return parent.equals(that.parent);
+  }
+
+  @Override
+  public int hashCode() {
+    if(isRoot()) {
+      return 0;
+    }
+    return 31 * (31 * parent.hashCode() + kind) + (kind == INDEX ? index : Objects.hashCode(name));
+  }
+
+  @Override
+  public String toString() {
+    if(isRoot()) {
+      return ConstraintViolation.ROOT_CONTEXT;
+    }
+    StringBuilder sb = new StringBuilder();
+    render(sb);
+    return sb.toString();
+  }
+
+  private void render(StringBuilder sb) {
+    if(isRoot()) {
+      return;
+    }
+    parent.render(sb);
+    switch(kind) {
+      case FIELD:
+        sb.append(ConstraintViolation.ROOT_CONTEXT).append(name);
+        break;
+      case INDEX:
+        sb.append('[').append(index).append(']');
+        break;
+      case KEY:
+        sb.append('[').append(name).append(']');
+        break;
+      default:
+        sb.append(name);
+    }
+  }
+}
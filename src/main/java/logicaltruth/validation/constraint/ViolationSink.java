@@ -0,0 +1,11 @@
+package logicaltruth.validation.constraint;
+
+/**
+ * Receives violations as soon as they are found, already located at their full
+ * {@link ConstraintViolation#getPath() path}.
+ */
+@FunctionalInterface
+public interface ViolationSink {
+
+  void accept(ConstraintViolation violation);
+}
@@ -1,46 +1,45 @@
 package logicaltruth.validation.constraint.common;
 
 import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
 import logicaltruth.validation.constraint.ValidationResult;
+import logicaltruth.validation.constraint.ValidationStatus;
+import logicaltruth.validation.constraint.impl.ListConstraint;
+import logicaltruth.validation.constraint.impl.MapConstraint;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.IntStream;
 
 public class CollectionValidators {
   public static <T> Constraint<List<T>> listConstraint(Constraint<T> constraint) {
-    return l -> validateList(l, constraint);
+    return new ListConstraint<>(constraint);
   }
 
   public static <T> Constraint<Map<Object, T>> mapConstraint(Constraint<T> constraint) {
-    return m -> validateMap(m, constraint);
+    return new MapConstraint<>(constraint);
   }
 
   public static <T> ValidationResult validateList(List<T> value, Constraint<T> constraint) {
-    ValidationResult result = new ValidationResult(value);
-    IntStream.range(0, value.size()).forEach(i -> {
-      ValidationResult vr = constraint.validate(value.get(i));
-      vr.getConstraintViolations().forEach(cv -> {
-        String name = "[" + i + "]";
-        cv.appendContext(name);
-      });
-      result.addConstraintViolations(vr.getConstraintViolations());
-    });
-    return result;
+    return listConstraint(constraint).validate(value);
   }
 
   public static <T> ValidationResult validateMap(Map<Object, T> value, Constraint<T> constraint) {
-    ValidationResult result = new ValidationResult(value);
-    value.forEach((k, v) -> {
-      ValidationResult vr = constraint.validate(v);
-      vr.getConstraintViolations().forEach(cv -> {
-        String name = "[" + k + "]";
-        cv.appendContext(name);
-      });
-
-      result.addConstraintViolations(vr.getConstraintViolations());
-    });
-
-    return result;
+    return mapConstraint(constraint).validate(value);
+  }
+
+  public static <T> boolean testList(List<T> value, Constraint<T> constraint) {
+    return listConstraint(constraint).test(value);
+  }
+
+  public static <T> boolean testMap(Map<Object, T> value, Constraint<T> constraint) {
+    return mapConstraint(constraint).test(value);
+  }
+
+  public static <T> ValidationStatus validateList(List<T> value, Constraint<T> constraint, ValidationContext context) {
+    return listConstraint(constraint).validateNested(value, context);
+  }
+
+  public static <T> ValidationStatus validateMap(Map<Object, T> value, Constraint<T> constraint, ValidationContext context) {
+    return mapConstraint(constraint).validateNested(value, context);
   }
 }
@@ -0,0 +1,35 @@
+package logicaltruth.validation.constraint.common;
+
+import logicaltruth.validation.constraint.impl.DoubleConstraint;
+
+import static logicaltruth.validation.constraint.ViolationCode.GREATER_THAN;
+import static logicaltruth.validation.constraint.ViolationCode.LESS_THAN;
+import static logicaltruth.validation.constraint.ViolationCode.MAX;
+import static logicaltruth.validation.constraint.ViolationCode.MIN;
+
+/**
+ * Unboxed double checks, for {@code Schema.doubleField}.
+ */
+public class DoubleConstraints {
+
+  public static DoubleConstraint doubleLessThan(double max) {
+    return DoubleConstraint.withPredicate(d -> d < max, LESS_THAN, max);
+  }
+
+  public static DoubleConstraint doubleMax(double max) {
+    return DoubleConstraint.withPredicate(d -> d <= max, MAX, max);
+  }
+
+  public static DoubleConstraint doubleGreaterThan(double min) {
+    return DoubleConstraint.withPredicate(d -> d > min, GREATER_THAN, min);
+  }
+
+  public static DoubleConstraint doubleMin(double min) {
+    return DoubleConstraint.withPredicate(d -> d >= min, MIN, min);
+  }
+
+  public static DoubleConstraint doubleRange(double min, double max) {
+    return doubleMin(min).and(doubleMax(max));
+  }
+
+}
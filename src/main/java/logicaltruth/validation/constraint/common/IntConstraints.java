@@ -0,0 +1,35 @@
+package logicaltruth.validation.constraint.common;
+
+import logicaltruth.validation.constraint.impl.IntConstraint;
+
+import static logicaltruth.validation.constraint.ViolationCode.GREATER_THAN;
+import static logicaltruth.validation.constraint.ViolationCode.LESS_THAN;
+import static logicaltruth.validation.constraint.ViolationCode.MAX;
+import static logicaltruth.validation.constraint.ViolationCode.MIN;
+
+/**
+ * Unboxed counterparts of {@link IntegerConstraints}, for {@code Schema.intField}.
+ */
+public class IntConstraints {
+
+  public static IntConstraint intLessThan(int max) {
+    return IntConstraint.withPredicate(i -> i < max, LESS_THAN, max);
+  }
+
+  public static IntConstraint intMax(int max) {
+    return IntConstraint.withPredicate(i -> i <= max, MAX, max);
+  }
+
+  public static IntConstraint intGreaterThan(int min) {
+    return IntConstraint.withPredicate(i -> i > min, GREATER_THAN, min);
+  }
+
+  public static IntConstraint intMin(int min) {
+    return IntConstraint.withPredicate(i -> i >= min, MIN, min);
+  }
+
+  public static IntConstraint intRange(int min, int max) {
+    return intMin(min).and(intMax(max));
+  }
+
+}
@@ -3,26 +3,29 @@ package logicaltruth.validation.constraint.common;
 import logicaltruth.validation.constraint.Constraint;
 import logicaltruth.validation.constraint.impl.StandardConstraint;
 
-import static java.lang.String.format;
+import static logicaltruth.validation.constraint.ViolationCode.GREATER_THAN;
+import static logicaltruth.validation.constraint.ViolationCode.LESS_THAN;
+import static logicaltruth.validation.constraint.ViolationCode.MAX;
+import static logicaltruth.validation.constraint.ViolationCode.MIN;
 
 public class IntegerConstraints {
 
   public static Constraint<Integer> integerRequired = Value.<Integer>required();
 
   public static Constraint<Integer> lessThan(Integer max) {
-    return StandardConstraint.withPredicate(i -> i != null && i < max, format("must be less than %s", max));
+    return StandardConstraint.builtIn(i -> i != null && i < max, LESS_THAN, max);
   }
 
   public static Constraint<Integer> max(Integer max) {
-    return StandardConstraint.withPredicate(i -> i != null && i <= max, format("must be at most %s", max));
+    return StandardConstraint.builtIn(i -> i != null && i <= max, MAX, max);
   }
 
   public static Constraint<Integer> greaterThan(Integer min) {
-    return StandardConstraint.withPredicate(i -> i != null && i > min, format("must be greater than %s", min));
+    return StandardConstraint.builtIn(i -> i != null && i > min, GREATER_THAN, min);
   }
 
   public static Constraint<Integer> min(Integer min) {
-    return StandardConstraint.withPredicate(i -> i != null && i >= min, format("must be at least %s", min));
+    return StandardConstraint.builtIn(i -> i != null && i >= min, MIN, min);
   }
 
   public static Constraint<Integer> integerRange(Integer min, Integer max) {
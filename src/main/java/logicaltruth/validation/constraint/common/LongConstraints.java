@@ -0,0 +1,35 @@
+package logicaltruth.validation.constraint.common;
+
+import logicaltruth.validation.constraint.impl.LongConstraint;
+
+import static logicaltruth.validation.constraint.ViolationCode.GREATER_THAN;
+import static logicaltruth.validation.constraint.ViolationCode.LESS_THAN;
+import static logicaltruth.validation.constraint.ViolationCode.MAX;
+import static logicaltruth.validation.constraint.ViolationCode.MIN;
+
+/**
+ * Unboxed long checks, for {@code Schema.longField}.
+ */
+public class LongConstraints {
+
+  public static LongConstraint longLessThan(long max) {
+    return LongConstraint.withPredicate(l -> l < max, LESS_THAN, max);
+  }
+
+  public static LongConstraint longMax(long max) {
+    return LongConstraint.withPredicate(l -> l <= max, MAX, max);
+  }
+
+  public static LongConstraint longGreaterThan(long min) {
+    return LongConstraint.withPredicate(l -> l > min, GREATER_THAN, min);
+  }
+
+  public static LongConstraint longMin(long min) {
+    return LongConstraint.withPredicate(l -> l >= min, MIN, min);
+  }
+
+  public static LongConstraint longRange(long min, long max) {
+    return longMin(min).and(longMax(max));
+  }
+
+}
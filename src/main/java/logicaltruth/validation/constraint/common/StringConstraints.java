@@ -3,7 +3,9 @@ package logicaltruth.validation.constraint.common;
 import logicaltruth.validation.constraint.Constraint;
 import logicaltruth.validation.constraint.impl.StandardConstraint;
 
-import static java.lang.String.format;
+import static logicaltruth.validation.constraint.ViolationCode.CONTAINS;
+import static logicaltruth.validation.constraint.ViolationCode.MAX_LENGTH;
+import static logicaltruth.validation.constraint.ViolationCode.MIN_LENGTH;
 
 
 public class StringConstraints {
@@ -11,11 +13,11 @@ public class StringConstraints {
   public static Constraint<String> stringRequired = Value.<String>required();
 
   public static Constraint<String> minLength(int size) {
-    return StandardConstraint.withPredicate(s -> s != null && s.length() >= size, format("must have at least %s chars", size));
+    return StandardConstraint.builtIn(s -> s != null && s.length() >= size, MIN_LENGTH, size);
   }
 
   public static Constraint<String> maxLength(int size) {
-    return StandardConstraint.withPredicate(s -> s != null && s.length() <= size, format("must have at most %s chars", size));
+    return StandardConstraint.builtIn(s -> s != null && s.length() <= size, MAX_LENGTH, size);
   }
 
   public static Constraint<String> rangeLength(int minSize, int maxSize) {
@@ -23,7 +25,7 @@ public class StringConstraints {
   }
 
   public static Constraint<String> contains(String c) {
-    return StandardConstraint.withPredicate(s -> s != null && s.contains(c), format("must contain %s", c));
+    return StandardConstraint.builtIn(s -> s != null && s.contains(c), CONTAINS, c);
   }
 
   public static Constraint<String> regex(String c) {
@@ -6,21 +6,24 @@ import logicaltruth.validation.constraint.impl.StandardConstraint;
 import java.util.List;
 import java.util.Map;
 
+import static logicaltruth.validation.constraint.ViolationCode.NOT_NULL;
+import static logicaltruth.validation.constraint.ViolationCode.NULL;
+
 public class Value {
   public static <T> Constraint<T> required() {
-    return StandardConstraint.<T>withPredicate(s -> s != null, "must not be null");
+    return StandardConstraint.<T>builtIn(s -> s != null, NOT_NULL);
   }
 
   public static <T> Constraint<T> required(Class<T> clazz) {
-    return StandardConstraint.<T>withPredicate(s -> s != null, "must not be null");
+    return StandardConstraint.<T>builtIn(s -> s != null, NOT_NULL);
   }
 
   public static <T> Constraint<T> optional() {
-    return StandardConstraint.<T>withPredicate(s -> s == null, "must be null");
+    return StandardConstraint.<T>builtIn(s -> s == null, NULL);
   }
 
   public static <T> Constraint<T> optional(Class<T> clazz) {
-    return StandardConstraint.<T>withPredicate(s -> s == null, "must be null");
+    return StandardConstraint.<T>builtIn(s -> s == null, NULL);
   }
 
   public static <T> Constraint<List<T>> listRequired() {
@@ -0,0 +1,23 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationResult;
+import logicaltruth.validation.constraint.ValidationStatus;
+
+/**
+ * Base class for constraints implemented on top of
+ * {@link #validateNested(Object, ValidationContext)}, which reports violations to the context and
+ * allocates nothing on success. Only the outermost {@link #validate(Object)} call collects the
+ * violations into a result.
+ */
+public abstract class AbstractConstraint<K> implements Constraint<K> {
+
+  @Override
+  public ValidationResult validate(K value) {
+    return validate(value, new ValidationContext());
+  }
+
+  @Override
+  public abstract ValidationStatus validateNested(K value, ValidationContext context);
+}
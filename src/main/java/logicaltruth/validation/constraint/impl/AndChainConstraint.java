@@ -0,0 +1,76 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A left-nested chain of {@code and}s, {@code a.and(b).and(c)}, evaluated in a loop with the same
+ * statuses and the same stops as the nested {@link AndConstraint}s. {@link #test} runs the built-in
+ * checks first, as they are cheap and cannot fail on a null value.
+ */
+public class AndChainConstraint<K> extends AbstractConstraint<K> implements CompositeConstraint {
+  private final List<Constraint<K>> parts;
+  private final List<Constraint<K>> testOrder;
+
+  public AndChainConstraint(List<Constraint<K>> parts) {
+    this.parts = new ArrayList<>(parts);
+    List<Constraint<K>> testOrder = new ArrayList<>(parts.size());
+    for(Constraint<K> part : parts) {
+      if(isCheap(part)) {
+        testOrder.add(part);
+      }
+    }
+    for(Constraint<K> part : parts) {
+      if(!isCheap(part)) {
+        testOrder.add(part);
+      }
+    }
+    this.testOrder = testOrder;
+  }
+
+  private static boolean isCheap(Constraint<?> constraint) {
+    return constraint instanceof FusedChecksConstraint
+      || (constraint instanceof StandardConstraint && ((StandardConstraint<?>) constraint).isBuiltIn());
+  }
+
+  public List<Constraint<K>> getParts() {
+    return Collections.unmodifiableList(parts);
+  }
+
+  @Override
+  public List<Constraint<?>> getConstraints() {
+    return new ArrayList<>(parts);
+  }
+
+  @Override
+  public ValidationStatus validateNested(K value, ValidationContext context) {
+    ValidationStatus status = parts.get(0).validateNested(value, context);
+    for(int i = 1; i < parts.size(); i++) {
+      if(status == ValidationStatus.BREAK || (status != ValidationStatus.VALID && context.shouldStop())) {
+        return status;
+      }
+      ValidationStatus otherStatus = parts.get(i).validateNested(value, context);
+      if(status != ValidationStatus.VALID && otherStatus != ValidationStatus.VALID) {
+        status = ValidationStatus.INVALID;
+      } else if(status == ValidationStatus.VALID) {
+        status = otherStatus;
+      }
+    }
+    return status;
+  }
+
+  @Override
+  public boolean test(K value) {
+    for(Constraint<K> part : testOrder) {
+      if(!part.test(value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,51 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class AndConstraint<K> extends AbstractConstraint<K> implements CompositeConstraint {
+  private final Constraint<K> first;
+  private final Constraint<K> other;
+
+  public AndConstraint(Constraint<K> first, Constraint<K> other) {
+    this.first = first;
+    this.other = other;
+  }
+
+  public Constraint<K> getFirst() {
+    return first;
+  }
+
+  public Constraint<K> getOther() {
+    return other;
+  }
+
+  @Override
+  public List<Constraint<?>> getConstraints() {
+    return Arrays.asList(first, other);
+  }
+
+  @Override
+  public ValidationStatus validateNested(K value, ValidationContext context) {
+    ValidationStatus firstStatus = first.validateNested(value, context);
+    if(firstStatus == ValidationStatus.BREAK || (firstStatus != ValidationStatus.VALID && context.shouldStop())) {
+      return firstStatus;
+    }
+
+    ValidationStatus otherStatus = other.validateNested(value, context);
+    if(firstStatus != ValidationStatus.VALID && otherStatus != ValidationStatus.VALID) {
+      return ValidationStatus.INVALID;
+    }
+
+    return firstStatus != ValidationStatus.VALID ? firstStatus : otherStatus;
+  }
+
+  @Override
+  public boolean test(K value) {
+    return first.test(value) && other.test(value);
+  }
+}
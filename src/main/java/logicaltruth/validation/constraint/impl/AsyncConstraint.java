@@ -0,0 +1,60 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.AsyncValidation;
+import logicaltruth.validation.constraint.ConstraintViolation;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+import logicaltruth.validation.constraint.ViolationCode;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * A check answered asynchronously, e.g. by a remote lookup. Within
+ * {@link logicaltruth.validation.constraint.Constraint#validateAsync} it never blocks; a synchronous
+ * validation waits for the answer.
+ */
+public class AsyncConstraint<K> extends AbstractConstraint<K> {
+  private final Function<K, ? extends CompletionStage<Boolean>> predicate;
+  private final String message;
+  private final ViolationCode code;
+  private final Object[] arguments;
+
+  private AsyncConstraint(Function<K, ? extends CompletionStage<Boolean>> predicate, String message, ViolationCode code, Object[] arguments) {
+    this.predicate = predicate;
+    this.message = message;
+    this.code = code;
+    this.arguments = arguments;
+  }
+
+  public static <K> AsyncConstraint<K> withPredicate(Function<K, ? extends CompletionStage<Boolean>> predicate, String message) {
+    return new AsyncConstraint<>(predicate, message, null, null);
+  }
+
+  public static <K> AsyncConstraint<K> withPredicate(Function<K, ? extends CompletionStage<Boolean>> predicate, ViolationCode code, Object... arguments) {
+    return new AsyncConstraint<>(predicate, null, code, arguments);
+  }
+
+  @Override
+  public ValidationStatus validateNested(K value, ValidationContext context) {
+    AsyncValidation async = context.getAsyncValidation();
+    Boolean valid = async == null ? predicate.apply(value).toCompletableFuture().join() : async.result(this, value, predicate);
+    if(valid == null) {
+      // still running: hold back whatever depends on it until the next pass
+      return ValidationStatus.BREAK;
+    }
+    if(valid) {
+      return ValidationStatus.VALID;
+    }
+
+    context.report(code == null
+      ? new ConstraintViolation(message, context.getPath())
+      : new ConstraintViolation(code, arguments, context.getPath()));
+    return ValidationStatus.INVALID;
+  }
+
+  @Override
+  public boolean test(K value) {
+    return predicate.apply(value).toCompletableFuture().join();
+  }
+}
@@ -0,0 +1,79 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.AsyncValidation;
+import logicaltruth.validation.constraint.ConstraintViolation;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+import logicaltruth.validation.constraint.ViolationCode;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * A check answered by a bulk lookup, e.g. which of a set of customer ids exist. Within
+ * {@link logicaltruth.validation.constraint.Constraint#validateAsync} or
+ * {@link AsyncValidation#validateAll} the keys of every value checked with the same lookup are
+ * collected and resolved by a single call per pass; a synchronous validation looks up each key on
+ * its own. Keys missing from the answer fail the check.
+ */
+public class BatchConstraint<K, T> extends AbstractConstraint<K> {
+  private final Function<K, T> key;
+  private final Function<Set<T>, ? extends CompletionStage<? extends Map<T, Boolean>>> lookup;
+  private final String message;
+  private final ViolationCode code;
+  private final Object[] arguments;
+
+  private BatchConstraint(Function<K, T> key, Function<Set<T>, ? extends CompletionStage<? extends Map<T, Boolean>>> lookup,
+                          String message, ViolationCode code, Object[] arguments) {
+    this.key = key;
+    this.lookup = lookup;
+    this.message = message;
+    this.code = code;
+    this.arguments = arguments;
+  }
+
+  public static <K, T> BatchConstraint<K, T> withLookup(Function<K, T> key, Function<Set<T>, ? extends CompletionStage<? extends Map<T, Boolean>>> lookup, String message) {
+    return new BatchConstraint<>(key, lookup, message, null, null);
+  }
+
+  public static <K, T> BatchConstraint<K, T> withLookup(Function<K, T> key, Function<Set<T>, ? extends CompletionStage<? extends Map<T, Boolean>>> lookup,
+                                                        ViolationCode code, Object... arguments) {
+    return new BatchConstraint<>(key, lookup, null, code, arguments);
+  }
+
+  @Override
+  public ValidationStatus validateNested(K value, ValidationContext context) {
+    AsyncValidation async = context.getAsyncValidation();
+    T k = key.apply(value);
+    Boolean valid;
+    if(async == null) {
+      valid = lookup.apply(Collections.singleton(k)).toCompletableFuture().join().get(k);
+    } else {
+      CompletableFuture<Boolean> answer = async.batchAnswer(k, lookup);
+      if(!answer.isDone()) {
+        // queued for the next lookup call
+        return ValidationStatus.BREAK;
+      }
+      valid = answer.join();
+    }
+    if(valid != null && valid) {
+      return ValidationStatus.VALID;
+    }
+
+    context.report(code == null
+      ? new ConstraintViolation(message, context.getPath())
+      : new ConstraintViolation(code, arguments, context.getPath()));
+    return ValidationStatus.INVALID;
+  }
+
+  @Override
+  public boolean test(K value) {
+    T k = key.apply(value);
+    Boolean valid = lookup.apply(Collections.singleton(k)).toCompletableFuture().join().get(k);
+    return valid != null && valid;
+  }
+}
@@ -0,0 +1,80 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Turns any failure of the delegate into {@link ValidationStatus#BREAK}, see
+ * {@link Constraint#orElseBreak()}.
+ */
+public class BreakConstraint<K> extends AbstractConstraint<K> implements CompositeConstraint {
+  private final Constraint<K> delegate;
+
+  public BreakConstraint(Constraint<K> delegate) {
+    this.delegate = delegate;
+  }
+
+  public Constraint<K> getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public List<Constraint<?>> getConstraints() {
+    return Collections.singletonList(delegate);
+  }
+
+  @Override
+  public ValidationStatus validateNested(K value, ValidationContext context) {
+    ValidationStatus status = delegate.validateNested(value, context);
+    return status == ValidationStatus.VALID ? status : ValidationStatus.BREAK;
+  }
+
+  @Override
+  public boolean test(K value) {
+    return delegate.test(value);
+  }
+
+  /**
+   * Whether {@link Constraint#validateNested} returns BREAK for a value the constraint fails, so
+   * that {@code test} of {@code or} can stop where its validation does.
+   */
+  static <K> boolean breaks(Constraint<K> constraint, K value) {
+    if(constraint instanceof BreakConstraint) {
+      return true;
+    }
+    if(constraint instanceof AndConstraint) {
+      AndConstraint<K> and = (AndConstraint<K>) constraint;
+      return and.getFirst().test(value) ? breaks(and.getOther(), value) : breaks(and.getFirst(), value);
+    }
+    if(constraint instanceof AndChainConstraint) {
+      for(Constraint<K> part : ((AndChainConstraint<K>) constraint).getParts()) {
+        if(!part.test(value)) {
+          return breaks(part, value);
+        }
+      }
+      return false;
+    }
+    if(constraint instanceof OrConstraint) {
+      return breaks(((OrConstraint<K>) constraint).getFirst(), value);
+    }
+    if(constraint instanceof OrChainConstraint) {
+      return breaks(((OrChainConstraint<K>) constraint).getParts().get(0), value);
+    }
+    if(constraint instanceof ProjectionConstraint) {
+      ProjectionConstraint<K, Object> projection = (ProjectionConstraint<K, Object>) constraint;
+      return breaks(projection.getConstraint(), projection.getLens().apply(value));
+    }
+    if(constraint instanceof MemoizingConstraint) {
+      return ((MemoizingConstraint<K>) constraint).status(value) == ValidationStatus.BREAK;
+    }
+    if(constraint instanceof StandardConstraint || constraint instanceof FusedChecksConstraint
+      || constraint instanceof ListConstraint || constraint instanceof MapConstraint) {
+      return false;
+    }
+    return constraint.validate(value).isBreak();
+  }
+}
@@ -0,0 +1,14 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+
+import java.util.List;
+
+/**
+ * Constraint built from other constraints, e.g. by {@link Constraint#and(Constraint)}. Exposes its
+ * parts so that passes like {@code Schema.compile()} can walk the whole constraint tree.
+ */
+public interface CompositeConstraint {
+
+  List<Constraint<?>> getConstraints();
+}
@@ -0,0 +1,118 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rewrites a constraint tree into an equivalent one that is cheaper to evaluate:
+ * <ul>
+ * <li>{@code and} and {@code or} chains are flattened into {@link AndChainConstraint}s and
+ * {@link OrChainConstraint}s; an {@code and} nested on the right is only pulled up when it cannot
+ * return {@link logicaltruth.validation.constraint.ValidationStatus#BREAK}, which is what makes the
+ * nesting observable,</li>
+ * <li>adjacent built-in checks in an {@code and} chain, like the null, length and range checks of
+ * {@code stringRequired.and(rangeLength(2, 5))}, are fused into a {@link FusedChecksConstraint},</li>
+ * <li>projections, lists, maps and {@code orElseBreak}s are rewritten below.</li>
+ * </ul>
+ * Violations, their order and the fail-fast and budget stops are unchanged, so checks are only put
+ * cheapest first for {@link Constraint#test}. Schemas, memoized and other constraints are kept as
+ * they are.
+ */
+public final class ConstraintOptimizer {
+  private ConstraintOptimizer() {
+  }
+
+  public static <K> Constraint<K> optimize(Constraint<K> constraint) {
+    if(constraint instanceof AndConstraint) {
+      return optimizeAnd(constraint);
+    }
+    if(constraint instanceof OrConstraint) {
+      List<Constraint<K>> parts = new ArrayList<>();
+      Constraint<K> first = constraint;
+      while(first instanceof OrConstraint) {
+        parts.add(0, optimize(((OrConstraint<K>) first).getOther()));
+        first = ((OrConstraint<K>) first).getFirst();
+      }
+      parts.add(0, optimize(first));
+      return parts.size() == 2 ? new OrConstraint<>(parts.get(0), parts.get(1)) : new OrChainConstraint<>(parts);
+    }
+    if(constraint instanceof BreakConstraint) {
+      return new BreakConstraint<>(optimize(((BreakConstraint<K>) constraint).getDelegate()));
+    }
+    if(constraint instanceof ProjectionConstraint) {
+      ProjectionConstraint<K, Object> projection = (ProjectionConstraint<K, Object>) constraint;
+      return new ProjectionConstraint<>(projection.getLens(), optimize(projection.getConstraint()));
+    }
+    if(constraint instanceof ListConstraint) {
+      return (Constraint<K>) new ListConstraint<>(optimize(((ListConstraint<Object>) (Constraint<?>) constraint).getConstraint()));
+    }
+    if(constraint instanceof MapConstraint) {
+      return (Constraint<K>) new MapConstraint<>(optimize(((MapConstraint<Object>) (Constraint<?>) constraint).getConstraint()));
+    }
+    return constraint;
+  }
+
+  private static <K> Constraint<K> optimizeAnd(Constraint<K> constraint) {
+    List<Constraint<K>> flat = new ArrayList<>();
+    flatten(constraint, flat);
+
+    List<Constraint<K>> parts = new ArrayList<>();
+    List<StandardConstraint<K>> run = new ArrayList<>();
+    for(Constraint<K> part : flat) {
+      if(FusedChecksConstraint.isFusable(part)) {
+        run.add((StandardConstraint<K>) part);
+      } else {
+        fuse(run, parts);
+        parts.add(optimize(part));
+      }
+    }
+    fuse(run, parts);
+    if(parts.size() == 1) {
+      return parts.get(0);
+    }
+    return parts.size() == 2 ? new AndConstraint<>(parts.get(0), parts.get(1)) : new AndChainConstraint<>(parts);
+  }
+
+  // the operands of an and chain in evaluation order
+  private static <K> void flatten(Constraint<K> constraint, List<Constraint<K>> parts) {
+    if(!(constraint instanceof AndConstraint)) {
+      parts.add(constraint);
+      return;
+    }
+    AndConstraint<K> and = (AndConstraint<K>) constraint;
+    flatten(and.getFirst(), parts);
+    if(mayBreak(and.getOther())) {
+      parts.add(and.getOther());
+    } else {
+      flatten(and.getOther(), parts);
+    }
+  }
+
+  private static <K> void fuse(List<StandardConstraint<K>> run, List<Constraint<K>> parts) {
+    if(run.size() == 1) {
+      parts.add(run.get(0));
+    } else if(run.size() > 1) {
+      parts.add(FusedChecksConstraint.of(new ArrayList<>(run)));
+    }
+    run.clear();
+  }
+
+  // statuses other than VALID and INVALID make and associative no more
+  private static boolean mayBreak(Constraint<?> constraint) {
+    if(constraint instanceof StandardConstraint || constraint instanceof ListConstraint || constraint instanceof MapConstraint) {
+      return false;
+    }
+    if(constraint instanceof AndConstraint) {
+      return mayBreak(((AndConstraint<?>) constraint).getFirst()) || mayBreak(((AndConstraint<?>) constraint).getOther());
+    }
+    if(constraint instanceof OrConstraint) {
+      return mayBreak(((OrConstraint<?>) constraint).getFirst());
+    }
+    if(constraint instanceof ProjectionConstraint) {
+      return mayBreak(((ProjectionConstraint<?, ?>) constraint).getConstraint());
+    }
+    return true;
+  }
+}
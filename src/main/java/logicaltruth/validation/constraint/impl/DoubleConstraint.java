@@ -0,0 +1,69 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+import logicaltruth.validation.constraint.ViolationCode;
+
+import java.util.function.DoublePredicate;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Checks on a primitive {@code double}, combined with {@link #and} and applied to a value
+ * through an unboxed getter with {@link #on(ToDoubleFunction)}.
+ */
+public class DoubleConstraint extends PrimitiveConstraint<DoublePredicate, DoubleConstraint> {
+
+  private DoubleConstraint(DoublePredicate[] predicates, ViolationCode[] codes, Object[][] arguments) {
+    super(predicates, codes, arguments);
+  }
+
+  public static DoubleConstraint withPredicate(DoublePredicate predicate, ViolationCode code, Object... arguments) {
+    return new DoubleConstraint(new DoublePredicate[] { predicate }, new ViolationCode[] { code }, new Object[][] { arguments });
+  }
+
+  @Override
+  DoubleConstraint create(DoublePredicate[] predicates, ViolationCode[] codes, Object[][] arguments) {
+    return new DoubleConstraint(predicates, codes, arguments);
+  }
+
+  public <K> Constraint<K> on(ToDoubleFunction<K> getter) {
+    return projection((value, context) -> validateNested(getter.applyAsDouble(value), context), value -> test(getter.applyAsDouble(value)));
+  }
+
+  /**
+   * Applies the checks to a boxed value, reporting a null one as {@link ViolationCode#NOT_NULL}.
+   */
+  public <K> Constraint<K> onBoxed(Function<K, ? extends Number> getter) {
+    return projection((value, context) -> {
+      Number number = getter.apply(value);
+      return number == null ? missing(context) : validateNested(number.doubleValue(), context);
+    }, value -> {
+      Number number = getter.apply(value);
+      return number != null && test(number.doubleValue());
+    });
+  }
+
+  public boolean test(double value) {
+    for(int i = 0; i < predicates.length; i++) {
+      if(!predicates[i].test(value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public ValidationStatus validateNested(double value, ValidationContext context) {
+    ValidationStatus status = ValidationStatus.VALID;
+    for(int i = 0; i < predicates.length; i++) {
+      if(!predicates[i].test(value)) {
+        status = ValidationStatus.INVALID;
+        if(fail(i, context)) {
+          break;
+        }
+      }
+    }
+    return status;
+  }
+}
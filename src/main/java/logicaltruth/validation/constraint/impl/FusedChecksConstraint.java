@@ -0,0 +1,199 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ConstraintViolation;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+import logicaltruth.validation.constraint.ViolationCode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A run of built-in checks {@code and}-ed on the same value, evaluated in one pass: the value is
+ * tested for null once, a null value fails every check but {@code isNull()} without evaluating any,
+ * and the length of a string or the unboxed integer is read once for all length and range checks.
+ * Violations are reported in the order of the checks, stopping where the {@code and} chain would.
+ */
+public class FusedChecksConstraint<K> extends AbstractConstraint<K> implements CompositeConstraint {
+  private static final int OPAQUE = 0;
+  private static final int NOT_NULL = 1;
+  private static final int NULL = 2;
+  private static final int MIN_LENGTH = 3;
+  private static final int MAX_LENGTH = 4;
+  private static final int CONTAINS = 5;
+  private static final int LESS_THAN = 6;
+  private static final int MAX = 7;
+  private static final int GREATER_THAN = 8;
+  private static final int MIN = 9;
+
+  private final List<StandardConstraint<K>> checks;
+  private final int[] ops;
+  private final int[] ints;
+  private final Object[] operands;
+  private final boolean length;
+  private final boolean number;
+
+  private FusedChecksConstraint(List<StandardConstraint<K>> checks) {
+    this.checks = new ArrayList<>(checks);
+    this.ops = new int[checks.size()];
+    this.ints = new int[checks.size()];
+    this.operands = new Object[checks.size()];
+    boolean length = false;
+    boolean number = false;
+    for(int i = 0; i < ops.length; i++) {
+      StandardConstraint<K> check = checks.get(i);
+      ops[i] = opOf(check.getCode(), check.getArguments());
+      operands[i] = check.getArguments().length > 0 ? check.getArguments()[0] : null;
+      if(operands[i] instanceof Integer) {
+        ints[i] = (Integer) operands[i];
+      }
+      length |= ops[i] == MIN_LENGTH || ops[i] == MAX_LENGTH;
+      number |= ops[i] >= LESS_THAN;
+    }
+    this.length = length;
+    this.number = number;
+  }
+
+  /**
+   * Checks that can be fused, i.e. built-in ones with the documented arguments.
+   */
+  public static boolean isFusable(Constraint<?> constraint) {
+    if(!(constraint instanceof StandardConstraint) || !((StandardConstraint<?>) constraint).isBuiltIn()) {
+      return false;
+    }
+    StandardConstraint<?> check = (StandardConstraint<?>) constraint;
+    return opOf(check.getCode(), check.getArguments()) != OPAQUE;
+  }
+
+  public static <K> FusedChecksConstraint<K> of(List<StandardConstraint<K>> checks) {
+    for(StandardConstraint<K> check : checks) {
+      if(!isFusable(check)) {
+        throw new IllegalArgumentException("Not a built-in check: " + check);
+      }
+    }
+    return new FusedChecksConstraint<>(checks);
+  }
+
+  // the op evaluating a built-in check inline, OPAQUE when its arguments are not the documented ones
+  private static int opOf(ViolationCode code, Object[] arguments) {
+    if(ViolationCode.NOT_NULL.equals(code)) {
+      return NOT_NULL;
+    }
+    if(ViolationCode.NULL.equals(code)) {
+      return NULL;
+    }
+    Object argument = arguments.length == 1 ? arguments[0] : null;
+    if(argument instanceof String && ViolationCode.CONTAINS.equals(code)) {
+      return CONTAINS;
+    }
+    if(!(argument instanceof Integer)) {
+      return OPAQUE;
+    }
+    if(ViolationCode.MIN_LENGTH.equals(code)) {
+      return MIN_LENGTH;
+    }
+    if(ViolationCode.MAX_LENGTH.equals(code)) {
+      return MAX_LENGTH;
+    }
+    if(ViolationCode.LESS_THAN.equals(code)) {
+      return LESS_THAN;
+    }
+    if(ViolationCode.MAX.equals(code)) {
+      return MAX;
+    }
+    if(ViolationCode.GREATER_THAN.equals(code)) {
+      return GREATER_THAN;
+    }
+    if(ViolationCode.MIN.equals(code)) {
+      return MIN;
+    }
+    return OPAQUE;
+  }
+
+  @Override
+  public List<Constraint<?>> getConstraints() {
+    return new ArrayList<>(checks);
+  }
+
+  @Override
+  public ValidationStatus validateNested(K value, ValidationContext context) {
+    ValidationStatus status = ValidationStatus.VALID;
+    if(value == null) {
+      for(int i = 0; i < ops.length; i++) {
+        if(ops[i] != NULL) {
+          report(i, context);
+          status = ValidationStatus.INVALID;
+          if(context.shouldStop()) {
+            break;
+          }
+        }
+      }
+      return status;
+    }
+
+    int length = this.length ? ((String) value).length() : 0;
+    int number = this.number ? (Integer) value : 0;
+    for(int i = 0; i < ops.length; i++) {
+      if(!check(i, value, length, number)) {
+        report(i, context);
+        status = ValidationStatus.INVALID;
+        if(context.shouldStop()) {
+          break;
+        }
+      }
+    }
+    return status;
+  }
+
+  @Override
+  public boolean test(K value) {
+    if(value == null) {
+      for(int op : ops) {
+        if(op != NULL) {
+          return false;
+        }
+      }
+      return true;
+    }
+    int length = this.length ? ((String) value).length() : 0;
+    int number = this.number ? (Integer) value : 0;
+    for(int i = 0; i < ops.length; i++) {
+      if(!check(i, value, length, number)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // the value is not null here
+  private boolean check(int i, Object value, int length, int number) {
+    switch(ops[i]) {
+      case NOT_NULL:
+        return true;
+      case NULL:
+        return false;
+      case MIN_LENGTH:
+        return length >= ints[i];
+      case MAX_LENGTH:
+        return length <= ints[i];
+      case CONTAINS:
+        return ((String) value).contains((String) operands[i]);
+      case LESS_THAN:
+        return number < ints[i];
+      case MAX:
+        return number <= ints[i];
+      case GREATER_THAN:
+        return number > ints[i];
+      case MIN:
+        return number >= ints[i];
+      default:
+        throw new IllegalStateException("Unknown op " + ops[i]);
+    }
+  }
+
+  private void report(int i, ValidationContext context) {
+    StandardConstraint<K> check = checks.get(i);
+    context.report(new ConstraintViolation(check.getCode(), check.getArguments(), context.getPath()));
+  }
+}
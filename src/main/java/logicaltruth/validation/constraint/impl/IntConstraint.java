@@ -0,0 +1,69 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+import logicaltruth.validation.constraint.ViolationCode;
+
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Checks on a primitive {@code int}, combined with {@link #and} and applied to a value
+ * through an unboxed getter with {@link #on(ToIntFunction)}.
+ */
+public class IntConstraint extends PrimitiveConstraint<IntPredicate, IntConstraint> {
+
+  private IntConstraint(IntPredicate[] predicates, ViolationCode[] codes, Object[][] arguments) {
+    super(predicates, codes, arguments);
+  }
+
+  public static IntConstraint withPredicate(IntPredicate predicate, ViolationCode code, Object... arguments) {
+    return new IntConstraint(new IntPredicate[] { predicate }, new ViolationCode[] { code }, new Object[][] { arguments });
+  }
+
+  @Override
+  IntConstraint create(IntPredicate[] predicates, ViolationCode[] codes, Object[][] arguments) {
+    return new IntConstraint(predicates, codes, arguments);
+  }
+
+  public <K> Constraint<K> on(ToIntFunction<K> getter) {
+    return projection((value, context) -> validateNested(getter.applyAsInt(value), context), value -> test(getter.applyAsInt(value)));
+  }
+
+  /**
+   * Applies the checks to a boxed value, reporting a null one as {@link ViolationCode#NOT_NULL}.
+   */
+  public <K> Constraint<K> onBoxed(Function<K, ? extends Number> getter) {
+    return projection((value, context) -> {
+      Number number = getter.apply(value);
+      return number == null ? missing(context) : validateNested(number.intValue(), context);
+    }, value -> {
+      Number number = getter.apply(value);
+      return number != null && test(number.intValue());
+    });
+  }
+
+  public boolean test(int value) {
+    for(int i = 0; i < predicates.length; i++) {
+      if(!predicates[i].test(value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public ValidationStatus validateNested(int value, ValidationContext context) {
+    ValidationStatus status = ValidationStatus.VALID;
+    for(int i = 0; i < predicates.length; i++) {
+      if(!predicates[i].test(value)) {
+        status = ValidationStatus.INVALID;
+        if(fail(i, context)) {
+          break;
+        }
+      }
+    }
+    return status;
+  }
+}
@@ -0,0 +1,55 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Applies the element constraint to every list element, reporting violations under their index.
+ */
+public class ListConstraint<T> extends AbstractConstraint<List<T>> implements CompositeConstraint {
+  private final Constraint<T> constraint;
+
+  public ListConstraint(Constraint<T> constraint) {
+    this.constraint = constraint;
+  }
+
+  public Constraint<T> getConstraint() {
+    return constraint;
+  }
+
+  @Override
+  public List<Constraint<?>> getConstraints() {
+    return Collections.singletonList(constraint);
+  }
+
+  @Override
+  public ValidationStatus validateNested(List<T> value, ValidationContext context) {
+    ValidationStatus status = ValidationStatus.VALID;
+    for(int i = 0; i < value.size(); i++) {
+      context.enterIndex(i);
+      ValidationStatus elementStatus = constraint.validateNested(value.get(i), context);
+      context.exit();
+      if(elementStatus != ValidationStatus.VALID) {
+        status = ValidationStatus.INVALID;
+        if(context.shouldStop()) {
+          break;
+        }
+      }
+    }
+    return status;
+  }
+
+  @Override
+  public boolean test(List<T> value) {
+    for(int i = 0; i < value.size(); i++) {
+      if(!constraint.test(value.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
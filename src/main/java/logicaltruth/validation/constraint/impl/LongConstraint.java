@@ -0,0 +1,69 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+import logicaltruth.validation.constraint.ViolationCode;
+
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Checks on a primitive {@code long}, combined with {@link #and} and applied to a value
+ * through an unboxed getter with {@link #on(ToLongFunction)}.
+ */
+public class LongConstraint extends PrimitiveConstraint<LongPredicate, LongConstraint> {
+
+  private LongConstraint(LongPredicate[] predicates, ViolationCode[] codes, Object[][] arguments) {
+    super(predicates, codes, arguments);
+  }
+
+  public static LongConstraint withPredicate(LongPredicate predicate, ViolationCode code, Object... arguments) {
+    return new LongConstraint(new LongPredicate[] { predicate }, new ViolationCode[] { code }, new Object[][] { arguments });
+  }
+
+  @Override
+  LongConstraint create(LongPredicate[] predicates, ViolationCode[] codes, Object[][] arguments) {
+    return new LongConstraint(predicates, codes, arguments);
+  }
+
+  public <K> Constraint<K> on(ToLongFunction<K> getter) {
+    return projection((value, context) -> validateNested(getter.applyAsLong(value), context), value -> test(getter.applyAsLong(value)));
+  }
+
+  /**
+   * Applies the checks to a boxed value, reporting a null one as {@link ViolationCode#NOT_NULL}.
+   */
+  public <K> Constraint<K> onBoxed(Function<K, ? extends Number> getter) {
+    return projection((value, context) -> {
+      Number number = getter.apply(value);
+      return number == null ? missing(context) : validateNested(number.longValue(), context);
+    }, value -> {
+      Number number = getter.apply(value);
+      return number != null && test(number.longValue());
+    });
+  }
+
+  public boolean test(long value) {
+    for(int i = 0; i < predicates.length; i++) {
+      if(!predicates[i].test(value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public ValidationStatus validateNested(long value, ValidationContext context) {
+    ValidationStatus status = ValidationStatus.VALID;
+    for(int i = 0; i < predicates.length; i++) {
+      if(!predicates[i].test(value)) {
+        status = ValidationStatus.INVALID;
+        if(fail(i, context)) {
+          break;
+        }
+      }
+    }
+    return status;
+  }
+}
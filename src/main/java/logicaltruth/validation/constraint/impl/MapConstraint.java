@@ -0,0 +1,57 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the value constraint to every map value, reporting violations under their key.
+ */
+public class MapConstraint<T> extends AbstractConstraint<Map<Object, T>> implements CompositeConstraint {
+  private final Constraint<T> constraint;
+
+  public MapConstraint(Constraint<T> constraint) {
+    this.constraint = constraint;
+  }
+
+  public Constraint<T> getConstraint() {
+    return constraint;
+  }
+
+  @Override
+  public List<Constraint<?>> getConstraints() {
+    return Collections.singletonList(constraint);
+  }
+
+  @Override
+  public ValidationStatus validateNested(Map<Object, T> value, ValidationContext context) {
+    ValidationStatus status = ValidationStatus.VALID;
+    for(Map.Entry<Object, T> entry : value.entrySet()) {
+      context.enterKey(entry.getKey());
+      ValidationStatus elementStatus = constraint.validateNested(entry.getValue(), context);
+      context.exit();
+      if(elementStatus != ValidationStatus.VALID) {
+        status = ValidationStatus.INVALID;
+        if(context.shouldStop()) {
+          break;
+        }
+      }
+    }
+
+    return status;
+  }
+
+  @Override
+  public boolean test(Map<Object, T> value) {
+    for(T v : value.values()) {
+      if(!constraint.test(v)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,183 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ConstraintViolation;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+import logicaltruth.validation.constraint.ViolationPath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the outcome of an expensive delegate per value, compared with {@code equals}, see
+ * {@link Constraint#memoize(int)}. Cached violations are reported again under the current location.
+ * The cache holds at most {@code maxSize} values, evicting the least recently used ones; it is split
+ * in independently locked segments so concurrent validations rarely wait on each other. Asynchronous
+ * validations bypass the cache.
+ */
+public class MemoizingConstraint<K> extends AbstractConstraint<K> implements CompositeConstraint {
+  private static final Object NULL_KEY = new Object();
+  private static final int SEGMENTS = 16;
+  private static final int MIN_SEGMENT_SIZE = 64;
+
+  private final Constraint<K> delegate;
+  private final long ttlNanos;
+  private final Segment[] segments;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public MemoizingConstraint(Constraint<K> delegate, int maxSize) {
+    this(delegate, maxSize, 0, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Like {@link #MemoizingConstraint(Constraint, int)}, with outcomes expiring {@code ttl} after
+   * they were computed; a ttl of 0 keeps them until evicted.
+   */
+  public MemoizingConstraint(Constraint<K> delegate, int maxSize, long ttl, TimeUnit unit) {
+    if(maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1");
+    }
+    this.delegate = delegate;
+    this.ttlNanos = unit.toNanos(ttl);
+    int segmentCount = Math.max(1, Math.min(SEGMENTS, maxSize / MIN_SEGMENT_SIZE));
+    this.segments = new Segment[segmentCount];
+    for(int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(evictions,
+        maxSize / segmentCount + (i < maxSize % segmentCount ? 1 : 0));
+    }
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  public int size() {
+    int size = 0;
+    for(Segment segment : segments) {
+      synchronized(segment) {
+        size += segment.entries.size();
+      }
+    }
+    return size;
+  }
+
+  @Override
+  public List<Constraint<?>> getConstraints() {
+    return Collections.singletonList(delegate);
+  }
+
+  @Override
+  public ValidationStatus validateNested(K value, ValidationContext context) {
+    if(context.getAsyncValidation() != null) {
+      // an asynchronous delegate must start its checks in the caller's validation, not block in a cache fill
+      return delegate.validateNested(value, context);
+    }
+    Outcome outcome = outcome(value, context.isFailFast());
+    if(outcome.status == ValidationStatus.VALID) {
+      return outcome.status;
+    }
+    ViolationPath base = context.getPath();
+    for(ConstraintViolation violation : outcome.violations) {
+      context.report(violation.rebased(base));
+    }
+    return outcome.status;
+  }
+
+  @Override
+  public boolean test(K value) {
+    return outcome(value, false).status == ValidationStatus.VALID;
+  }
+
+  ValidationStatus status(K value) {
+    return outcome(value, false).status;
+  }
+
+  private Outcome outcome(K value, boolean failFast) {
+    Object key = value == null ? NULL_KEY : value;
+    Segment segment = segments[(spread(key.hashCode()) & Integer.MAX_VALUE) % segments.length];
+    long now = ttlNanos > 0 ? System.nanoTime() : 0;
+    int slot = failFast ? 1 : 0;
+
+    Outcome[] cached;
+    synchronized(segment) {
+      cached = segment.entries.get(key);
+    }
+    Outcome outcome = cached == null ? null : cached[slot];
+    if(outcome != null && (ttlNanos == 0 || now - outcome.computedAt < ttlNanos)) {
+      hits.increment();
+      return outcome;
+    }
+
+    misses.increment();
+    outcome = compute(value, failFast, now);
+    synchronized(segment) {
+      Outcome[] entry = segment.entries.get(key);
+      if(entry == null) {
+        entry = new Outcome[2];
+        segment.entries.put(key, entry);
+      }
+      entry[slot] = outcome;
+    }
+    return outcome;
+  }
+
+  private Outcome compute(K value, boolean failFast, long now) {
+    List<ConstraintViolation> violations = new ArrayList<>();
+    ValidationContext context = new ValidationContext();
+    context.setFailFast(failFast);
+    context.reset(violations::add);
+    ValidationStatus status = delegate.validateNested(value, context);
+    return new Outcome(status, status == ValidationStatus.VALID ? Collections.emptyList() : violations, now);
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  private static final class Outcome {
+    private final ValidationStatus status;
+    private final List<ConstraintViolation> violations;
+    private final long computedAt;
+
+    private Outcome(ValidationStatus status, List<ConstraintViolation> violations, long computedAt) {
+      this.status = status;
+      this.violations = violations;
+      this.computedAt = computedAt;
+    }
+  }
+
+  private static final class Segment {
+    private final Map<Object, Outcome[]> entries;
+
+    private Segment(LongAdder evictions, int maxSize) {
+      this.entries = new LinkedHashMap<Object, Outcome[]>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Outcome[]> eldest) {
+          if(size() > maxSize) {
+            evictions.increment();
+            return true;
+          }
+          return false;
+        }
+      };
+    }
+  }
+}
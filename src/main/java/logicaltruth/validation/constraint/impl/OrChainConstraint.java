@@ -0,0 +1,70 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A left-nested chain of {@code or}s, {@code a.or(b).or(c)}, evaluated in a loop under a single
+ * deferral with the same statuses, violations and budget use as the nested {@link OrConstraint}s.
+ */
+public class OrChainConstraint<K> extends AbstractConstraint<K> implements CompositeConstraint {
+  private final List<Constraint<K>> parts;
+
+  public OrChainConstraint(List<Constraint<K>> parts) {
+    this.parts = new ArrayList<>(parts);
+  }
+
+  @Override
+  public List<Constraint<?>> getConstraints() {
+    return new ArrayList<>(parts);
+  }
+
+  @Override
+  public ValidationStatus validateNested(K value, ValidationContext context) {
+    int mark = context.defer();
+    ValidationStatus firstStatus = parts.get(0).validateNested(value, context);
+    if(firstStatus != ValidationStatus.INVALID) {
+      context.commit(mark);
+      return firstStatus;
+    }
+
+    for(int i = 1; i < parts.size(); i++) {
+      int failedCount = context.deferredCount(mark);
+      context.discardViolations(failedCount);
+      ValidationStatus otherStatus = parts.get(i).validateNested(value, context);
+      context.countViolations(failedCount);
+      if(otherStatus == ValidationStatus.VALID) {
+        context.rollback(mark);
+        return ValidationStatus.VALID;
+      }
+    }
+
+    context.commit(mark);
+    return ValidationStatus.INVALID;
+  }
+
+  public List<Constraint<K>> getParts() {
+    return Collections.unmodifiableList(parts);
+  }
+
+  @Override
+  public boolean test(K value) {
+    if(parts.get(0).test(value)) {
+      return true;
+    }
+    if(BreakConstraint.breaks(parts.get(0), value)) {
+      return false;
+    }
+    for(int i = 1; i < parts.size(); i++) {
+      if(parts.get(i).test(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,62 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class OrConstraint<K> extends AbstractConstraint<K> implements CompositeConstraint {
+  private final Constraint<K> first;
+  private final Constraint<K> other;
+
+  public OrConstraint(Constraint<K> first, Constraint<K> other) {
+    this.first = first;
+    this.other = other;
+  }
+
+  public Constraint<K> getFirst() {
+    return first;
+  }
+
+  public Constraint<K> getOther() {
+    return other;
+  }
+
+  @Override
+  public List<Constraint<?>> getConstraints() {
+    return Arrays.asList(first, other);
+  }
+
+  @Override
+  public ValidationStatus validateNested(K value, ValidationContext context) {
+    int mark = context.defer();
+    ValidationStatus firstStatus = first.validateNested(value, context);
+    if(firstStatus != ValidationStatus.INVALID) {
+      context.commit(mark);
+      return firstStatus;
+    }
+
+    // the first branch is dropped if the other one succeeds, so it does not use up the budget
+    int firstCount = context.deferredCount(mark);
+    context.discardViolations(firstCount);
+    ValidationStatus otherStatus = other.validateNested(value, context);
+    context.countViolations(firstCount);
+    if(otherStatus == ValidationStatus.VALID) {
+      context.rollback(mark);
+      return ValidationStatus.VALID;
+    }
+
+    context.commit(mark);
+    return ValidationStatus.INVALID;
+  }
+
+  @Override
+  public boolean test(K value) {
+    if(first.test(value)) {
+      return true;
+    }
+    return !BreakConstraint.breaks(first, value) && other.test(value);
+  }
+}
@@ -0,0 +1,82 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ConstraintViolation;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+import logicaltruth.validation.constraint.ViolationCode;
+
+import java.util.Arrays;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * What {@link IntConstraint}, {@link LongConstraint} and {@link DoubleConstraint} share: a list of
+ * checks, each a primitive predicate {@code P} with the code and arguments it reports, combined with
+ * {@link #and} and applied to a value through a getter. Subclasses only evaluate the predicates, so
+ * the value is never boxed.
+ */
+public abstract class PrimitiveConstraint<P, C extends PrimitiveConstraint<P, C>> {
+  protected final P[] predicates;
+  private final ViolationCode[] codes;
+  private final Object[][] arguments;
+
+  PrimitiveConstraint(P[] predicates, ViolationCode[] codes, Object[][] arguments) {
+    this.predicates = predicates;
+    this.codes = codes;
+    this.arguments = arguments;
+  }
+
+  abstract C create(P[] predicates, ViolationCode[] codes, Object[][] arguments);
+
+  public C and(C other) {
+    PrimitiveConstraint<P, C> that = other;
+    return create(concat(predicates, that.predicates), concat(codes, that.codes), concat(arguments, that.arguments));
+  }
+
+  /**
+   * Reports the failure of check {@code i} and returns whether the remaining checks are skipped.
+   */
+  boolean fail(int i, ValidationContext context) {
+    context.report(new ConstraintViolation(codes[i], arguments[i], context.getPath()));
+    return context.shouldStop();
+  }
+
+  /**
+   * Reports a boxed value that is null, which none of the checks can be applied to.
+   */
+  ValidationStatus missing(ValidationContext context) {
+    context.report(new ConstraintViolation(ViolationCode.NOT_NULL, new Object[0], context.getPath()));
+    return ValidationStatus.INVALID;
+  }
+
+  static <K> Constraint<K> projection(BiFunction<K, ValidationContext, ValidationStatus> validate, Predicate<K> test) {
+    return new Projection<>(validate, test);
+  }
+
+  private static <T> T[] concat(T[] first, T[] other) {
+    T[] result = Arrays.copyOf(first, first.length + other.length);
+    System.arraycopy(other, 0, result, first.length, other.length);
+    return result;
+  }
+
+  private static final class Projection<K> extends AbstractConstraint<K> {
+    private final BiFunction<K, ValidationContext, ValidationStatus> validate;
+    private final Predicate<K> test;
+
+    private Projection(BiFunction<K, ValidationContext, ValidationStatus> validate, Predicate<K> test) {
+      this.validate = validate;
+      this.test = test;
+    }
+
+    @Override
+    public ValidationStatus validateNested(K value, ValidationContext context) {
+      return validate.apply(value, context);
+    }
+
+    @Override
+    public boolean test(K value) {
+      return test.test(value);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Validates the part of the value selected by a lens, e.g. a field read by a schema getter.
+ */
+public class ProjectionConstraint<K, T> extends AbstractConstraint<K> implements CompositeConstraint {
+  private final Function<K, T> lens;
+  private final Constraint<T> constraint;
+
+  public ProjectionConstraint(Function<K, T> lens, Constraint<T> constraint) {
+    this.lens = lens;
+    this.constraint = constraint;
+  }
+
+  public Function<K, T> getLens() {
+    return lens;
+  }
+
+  public Constraint<T> getConstraint() {
+    return constraint;
+  }
+
+  @Override
+  public List<Constraint<?>> getConstraints() {
+    return Collections.singletonList(constraint);
+  }
+
+  @Override
+  public ValidationStatus validateNested(K value, ValidationContext context) {
+    return constraint.validateNested(lens.apply(value), context);
+  }
+
+  @Override
+  public boolean test(K value) {
+    return constraint.test(lens.apply(value));
+  }
+}
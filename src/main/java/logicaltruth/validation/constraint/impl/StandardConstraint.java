@@ -1,28 +1,60 @@
 package logicaltruth.validation.constraint.impl;
 
-import logicaltruth.validation.constraint.Constraint;
 import logicaltruth.validation.constraint.ConstraintViolation;
-import logicaltruth.validation.constraint.ValidationResult;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+import logicaltruth.validation.constraint.ViolationCode;
 
-import java.util.Collections;
 import java.util.function.Predicate;
 
-public class StandardConstraint<K> implements Constraint<K> {
+public class StandardConstraint<K> extends AbstractConstraint<K> {
 
   private Predicate<K> predicate;
   private String message;
+  private ViolationCode code;
+  private Object[] arguments;
+  private boolean builtIn;
 
-  private StandardConstraint(Predicate<K> predicate, String message) {
+  private StandardConstraint(Predicate<K> predicate, String message, ViolationCode code, Object[] arguments) {
     this.predicate = predicate;
     this.message = message;
+    this.code = code;
+    this.arguments = arguments;
   }
 
   public static <K> StandardConstraint<K> withPredicate(Predicate<K> predicate, String message) {
-    return new StandardConstraint<K>(predicate, message);
+    return new StandardConstraint<K>(predicate, message, null, null);
   }
 
   public static <K> StandardConstraint<K> withPredicate(Predicate<K> predicate) {
-    return new StandardConstraint<K>(predicate, null);
+    return new StandardConstraint<K>(predicate, null, null, null);
+  }
+
+  public static <K> StandardConstraint<K> withPredicate(Predicate<K> predicate, ViolationCode code, Object... arguments) {
+    return new StandardConstraint<K>(predicate, null, code, arguments);
+  }
+
+  /**
+   * A check whose predicate is exactly the one documented for its code by the common constraints,
+   * e.g. {@code s != null && s.length() >= arguments[0]} for {@link ViolationCode#MIN_LENGTH}, so
+   * that {@link FusedChecksConstraint} may evaluate it without calling the predicate.
+   */
+  public static <K> StandardConstraint<K> builtIn(Predicate<K> predicate, ViolationCode code, Object... arguments) {
+    StandardConstraint<K> constraint = new StandardConstraint<K>(predicate, null, code, arguments);
+    constraint.builtIn = true;
+    return constraint;
+  }
+
+  public boolean isBuiltIn() {
+    return builtIn;
+  }
+
+  public ViolationCode getCode() {
+    return code;
+  }
+
+  public Object[] getArguments() {
+    return arguments;
   }
 
   public StandardConstraint<K> withMessage(String message) {
@@ -30,14 +62,20 @@ public class StandardConstraint<K> implements Constraint<K> {
   }
 
   @Override
-  public ValidationResult validate(K value) {
-    ValidationResult result = new ValidationResult(value);
+  public ValidationStatus validateNested(K value, ValidationContext context) {
     if(predicate.test(value)) {
-      return result;
+      return ValidationStatus.VALID;
     }
 
-    result.addConstraintViolations(Collections.singletonList(new ConstraintViolation(message)));
-    return result;
+    context.report(code == null
+      ? new ConstraintViolation(message, context.getPath())
+      : new ConstraintViolation(code, arguments, context.getPath()));
+    return ValidationStatus.INVALID;
+  }
+
+  @Override
+  public boolean test(K value) {
+    return predicate.test(value);
   }
 
 }
@@ -0,0 +1,59 @@
+package logicaltruth.validation.constraint.impl;
+
+import logicaltruth.validation.constraint.AsyncValidation;
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Throws when the delegate fails, see {@link Constraint#orElseThrow(RuntimeException)}.
+ */
+public class ThrowingConstraint<K> extends AbstractConstraint<K> implements CompositeConstraint {
+  private final Constraint<K> delegate;
+  private final RuntimeException exception;
+
+  public ThrowingConstraint(Constraint<K> delegate, RuntimeException exception) {
+    this.delegate = delegate;
+    this.exception = exception;
+  }
+
+  public Constraint<K> getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public List<Constraint<?>> getConstraints() {
+    return Collections.singletonList(delegate);
+  }
+
+  @Override
+  public ValidationStatus validateNested(K value, ValidationContext context) {
+    AsyncValidation async = context.getAsyncValidation();
+    int pending = async == null ? 0 : async.getPendingCount();
+    ValidationStatus status = delegate.validateNested(value, context);
+    if(status != ValidationStatus.VALID) {
+      if(async != null && async.getPendingCount() > pending) {
+        // not known yet, decided in a later pass
+        return ValidationStatus.BREAK;
+      }
+      throw failure();
+    }
+    return status;
+  }
+
+  @Override
+  public boolean test(K value) {
+    if(!delegate.test(value)) {
+      throw failure();
+    }
+    return true;
+  }
+
+  private RuntimeException failure() {
+    //TODO
+    return exception != null ? exception : new RuntimeException("INVALID");
+  }
+}
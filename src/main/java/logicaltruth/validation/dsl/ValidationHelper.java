@@ -106,6 +106,10 @@ public class ValidationHelper {
     return t -> constraint.validate(t);
   }
 
+  public static <T> Predicate<T> asPredicate(Constraint<T> constraint) {
+    return constraint::test;
+  }
+
   public static <T> Constraint<T> asConstraint(Function<T, ValidationResult> f) {
     return t -> f.apply(t);
   }
@@ -0,0 +1,288 @@
+package logicaltruth.validation.reactive;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationResult;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A processing stage validating the documents it receives and emitting their results in the order
+ * the documents arrived. It requests at most {@code bufferSize} documents ahead of what downstream
+ * has taken, validates up to {@code parallelism} of them at once on the executor, and signals
+ * downstream from one thread at a time. An upstream error or an exception thrown by the constraint
+ * is signaled at once, dropping the buffered results; completion is signaled after the last result.
+ * <p>
+ * The stage is a Reactive Streams {@link Processor}, usable on Java 8. On Java 9 and later,
+ * {@code org.reactivestreams.FlowAdapters.toFlowProcessor} turns it into a
+ * {@code java.util.concurrent.Flow.Processor}.
+ */
+public class ValidationProcessor<K> implements Processor<K, ValidationResult> {
+  private static final int DEFAULT_BUFFER_SIZE = 256;
+
+  private final Constraint<K> constraint;
+  private final Executor executor;
+  private final int parallelism;
+  private final int bufferSize;
+  private final ThreadLocal<ValidationContext> contexts = ThreadLocal.withInitial(ValidationContext::new);
+  private final AtomicInteger wip = new AtomicInteger();
+
+  private final ArrayDeque<K> queued = new ArrayDeque<>();
+  private final ValidationResult[] slots;
+  private Subscription upstream;
+  private Subscriber<? super ValidationResult> downstream;
+  private long requested;
+  private long received;
+  private long started;
+  private long emitted;
+  private long demand;
+  private int running;
+  private boolean upstreamDone;
+  private Throwable error;
+  private boolean cancelled;
+  private boolean terminated;
+
+  public ValidationProcessor(Constraint<K> constraint) {
+    this(constraint, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors(), DEFAULT_BUFFER_SIZE);
+  }
+
+  public ValidationProcessor(Constraint<K> constraint, Executor executor, int parallelism, int bufferSize) {
+    if(parallelism < 1 || bufferSize < 1) {
+      throw new IllegalArgumentException("parallelism and bufferSize must be at least 1");
+    }
+    this.constraint = constraint;
+    this.executor = executor;
+    this.parallelism = parallelism;
+    this.bufferSize = bufferSize;
+    this.slots = new ValidationResult[bufferSize];
+  }
+
+  /**
+   * Connects the only downstream subscriber of this stage; any later one is refused with
+   * {@code onError}.
+   */
+  @Override
+  public void subscribe(Subscriber<? super ValidationResult> subscriber) {
+    Objects.requireNonNull(subscriber, "subscriber");
+    boolean first;
+    synchronized(this) {
+      first = downstream == null;
+      if(first) {
+        downstream = subscriber;
+      }
+    }
+    if(!first) {
+      subscriber.onSubscribe(new Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+      });
+      subscriber.onError(new IllegalStateException("ValidationProcessor supports a single subscriber"));
+      return;
+    }
+    subscriber.onSubscribe(new Subscription() {
+      @Override
+      public void request(long n) {
+        ValidationProcessor.this.request(n);
+      }
+
+      @Override
+      public void cancel() {
+        ValidationProcessor.this.cancel();
+      }
+    });
+    drain();
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "subscription");
+    synchronized(this) {
+      if(upstream != null || cancelled) {
+        subscription.cancel();
+        return;
+      }
+      upstream = subscription;
+      requested = bufferSize;
+    }
+    subscription.request(bufferSize);
+  }
+
+  @Override
+  public void onNext(K item) {
+    Objects.requireNonNull(item, "item");
+    synchronized(this) {
+      if(cancelled || terminated) {
+        return;
+      }
+      if(received == requested) {
+        error = new IllegalStateException("More documents received than requested");
+      } else {
+        received++;
+        queued.add(item);
+      }
+    }
+    schedule();
+    drain();
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    Objects.requireNonNull(throwable, "throwable");
+    synchronized(this) {
+      if(error == null) {
+        error = throwable;
+      }
+    }
+    drain();
+  }
+
+  @Override
+  public void onComplete() {
+    synchronized(this) {
+      upstreamDone = true;
+    }
+    drain();
+  }
+
+  private void request(long n) {
+    synchronized(this) {
+      if(n <= 0) {
+        error = new IllegalArgumentException("Requested " + n + " results");
+      } else {
+        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+      }
+    }
+    drain();
+  }
+
+  private void cancel() {
+    Subscription subscription;
+    synchronized(this) {
+      cancelled = true;
+      queued.clear();
+      subscription = upstream;
+    }
+    if(subscription != null) {
+      subscription.cancel();
+    }
+  }
+
+  private void schedule() {
+    while(true) {
+      K item;
+      long sequence;
+      synchronized(this) {
+        if(running == parallelism || queued.isEmpty() || cancelled || error != null) {
+          return;
+        }
+        item = queued.poll();
+        sequence = started++;
+        running++;
+      }
+      try {
+        executor.execute(() -> validate(item, sequence));
+      } catch(RejectedExecutionException e) {
+        synchronized(this) {
+          running--;
+        }
+        onError(e);
+        return;
+      }
+    }
+  }
+
+  private void validate(K item, long sequence) {
+    ValidationResult result;
+    try {
+      result = constraint.validate(item, contexts.get());
+    } catch(RuntimeException e) {
+      synchronized(this) {
+        running--;
+      }
+      onError(e);
+      return;
+    }
+    synchronized(this) {
+      slots[(int) (sequence % bufferSize)] = result;
+      running--;
+    }
+    schedule();
+    drain();
+  }
+
+  // emits what can be emitted; only one thread signals downstream at a time
+  private void drain() {
+    if(wip.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      while(true) {
+        Subscriber<? super ValidationResult> subscriber;
+        ValidationResult next = null;
+        Throwable failure = null;
+        boolean complete = false;
+        long replenish = 0;
+        Subscription subscription;
+        synchronized(this) {
+          subscriber = downstream;
+          subscription = upstream;
+          if(subscriber == null || cancelled || terminated) {
+            break;
+          }
+          int slot = (int) (emitted % bufferSize);
+          if(error != null) {
+            failure = error;
+            terminated = true;
+            queued.clear();
+          } else if(demand > 0 && slots[slot] != null) {
+            next = slots[slot];
+            slots[slot] = null;
+            emitted++;
+            demand--;
+            // ask for more once half of the buffer is free again
+            if(!upstreamDone && requested - emitted <= bufferSize / 2) {
+              replenish = bufferSize - (requested - emitted);
+              requested += replenish;
+            }
+          } else if(upstreamDone && emitted == received) {
+            complete = true;
+            terminated = true;
+          } else {
+            break;
+          }
+        }
+
+        if(failure != null) {
+          if(subscription != null) {
+            subscription.cancel();
+          }
+          subscriber.onError(failure);
+          break;
+        }
+        if(complete) {
+          subscriber.onComplete();
+          break;
+        }
+        subscriber.onNext(next);
+        if(replenish > 0) {
+          subscription.request(replenish);
+        }
+      }
+      missed = wip.addAndGet(-missed);
+    } while(missed != 0);
+  }
+}
@@ -0,0 +1,146 @@
+package logicaltruth.validation.schema;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fail-fast entry order behind {@link Schema#adaptive}. One in {@value #SAMPLE_RATE} validations is
+ * sampled: the time and outcome of each entry it evaluates go to striped counters. Every
+ * {@code period} samples one thread folds the counters into decaying totals, sorts the entries by
+ * failures per nanosecond, and publishes the new order with a single volatile write; validations
+ * read the order once and never wait for a reordering.
+ */
+final class AdaptiveOrder<K> {
+  private static final int SAMPLE_RATE = 8;
+
+  private final List<Map.Entry<String, Constraint<K>>> entries;
+  private final int period;
+  private final LongAdder[] evaluated;
+  private final LongAdder[] failed;
+  private final LongAdder[] nanos;
+  private final AtomicLong samples = new AtomicLong();
+  private final AtomicBoolean reordering = new AtomicBoolean();
+  // only touched by the thread holding reordering
+  private final double[] evaluatedTotals;
+  private final double[] failedTotals;
+  private final double[] nanosTotals;
+  private volatile int[] order;
+
+  AdaptiveOrder(List<Map.Entry<String, Constraint<K>>> entries, int period) {
+    this.entries = entries;
+    this.period = period;
+    int size = entries.size();
+    this.evaluated = adders(size);
+    this.failed = adders(size);
+    this.nanos = adders(size);
+    this.evaluatedTotals = new double[size];
+    this.failedTotals = new double[size];
+    this.nanosTotals = new double[size];
+    this.order = new int[size];
+    for(int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+  }
+
+  private static LongAdder[] adders(int size) {
+    LongAdder[] adders = new LongAdder[size];
+    for(int i = 0; i < size; i++) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+
+  List<Map.Entry<String, Constraint<K>>> getEntries() {
+    return entries;
+  }
+
+  List<String> getOrder() {
+    List<String> names = new ArrayList<>();
+    for(int i : order) {
+      names.add(entries.get(i).getKey());
+    }
+    return names;
+  }
+
+  ValidationStatus validate(K value, ValidationContext context) {
+    int[] order = this.order;
+    boolean sample = ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0;
+    ValidationStatus status = ValidationStatus.VALID;
+    for(int i : order) {
+      Map.Entry<String, Constraint<K>> entry = entries.get(i);
+      context.enterField(entry.getKey());
+      long start = sample ? System.nanoTime() : 0;
+      ValidationStatus entryStatus = entry.getValue().validateNested(value, context);
+      if(sample) {
+        nanos[i].add(System.nanoTime() - start);
+        evaluated[i].increment();
+        if(entryStatus != ValidationStatus.VALID) {
+          failed[i].increment();
+        }
+      }
+      context.exit();
+      if(entryStatus != ValidationStatus.VALID) {
+        status = ValidationStatus.INVALID;
+        if(context.shouldStop()) {
+          break;
+        }
+      }
+    }
+    if(sample && samples.incrementAndGet() % period == 0) {
+      reorder();
+    }
+    return status;
+  }
+
+  private void reorder() {
+    if(!reordering.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      int size = entries.size();
+      double[] scores = new double[size];
+      double costs = 0;
+      int costed = 0;
+      for(int i = 0; i < size; i++) {
+        // halve the past so the order follows changes in the traffic
+        evaluatedTotals[i] = evaluatedTotals[i] / 2 + evaluated[i].sumThenReset();
+        failedTotals[i] = failedTotals[i] / 2 + failed[i].sumThenReset();
+        nanosTotals[i] = nanosTotals[i] / 2 + nanos[i].sumThenReset();
+        if(evaluatedTotals[i] > 0) {
+          costs += nanosTotals[i] / evaluatedTotals[i];
+          costed++;
+        }
+      }
+      for(int i = 0; i < size; i++) {
+        // entries cut off by earlier failures keep a prior failure rate and cost, so they get tried
+        double rate = (failedTotals[i] + 1) / (evaluatedTotals[i] + 2);
+        double cost = evaluatedTotals[i] > 0 ? nanosTotals[i] / evaluatedTotals[i] : costed > 0 ? costs / costed : 1;
+        scores[i] = rate / Math.max(cost, 1);
+      }
+      Integer[] sorted = new Integer[size];
+      for(int i = 0; i < size; i++) {
+        sorted[i] = order[i];
+      }
+      // stable, so ties keep the current order
+      Arrays.sort(sorted, Comparator.comparingDouble((Integer i) -> scores[i]).reversed());
+      int[] next = new int[size];
+      for(int i = 0; i < size; i++) {
+        next[i] = sorted[i];
+      }
+      order = next;
+    } finally {
+      reordering.set(false);
+    }
+  }
+}
@@ -3,17 +3,63 @@ package logicaltruth.validation.schema;
 import logicaltruth.validation.util.LambdaMetafactoryHelper;
 
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 public class BeanSchema<K> extends Schema<K> {
+  /**
+   * How field values are read: through the bean's accessors, or straight from the declared fields
+   * without running any getter.
+   */
+  public enum Access {
+    PROPERTY, FIELD
+  }
+
   private Class<K> clazz;
+  private Access access;
 
   public BeanSchema(Class<K> clazz) {
+    this(clazz, Access.PROPERTY);
+  }
+
+  public BeanSchema(Class<K> clazz, Access access) {
     this.clazz = clazz;
+    this.access = access;
   }
 
   @Override
   public <T> Function<K, T> fieldGetter(String name, Class<T> fieldType) {
-    String properName = name.substring(0, 1).toUpperCase() + name.substring(1);
-    return LambdaMetafactoryHelper.getGetterLambda("get" + properName, clazz, fieldType);
+    return access == Access.FIELD
+      ? LambdaMetafactoryHelper.getFieldLambda(name, clazz, fieldType)
+      : LambdaMetafactoryHelper.getPropertyLambda(name, clazz, fieldType);
+  }
+
+  @Override
+  public boolean isBoxedField(String name, Class<?> primitive) {
+    return access == Access.FIELD
+      ? LambdaMetafactoryHelper.isBoxedField(name, clazz, primitive)
+      : LambdaMetafactoryHelper.isBoxedProperty(name, clazz, primitive);
+  }
+
+  @Override
+  public ToIntFunction<K> intFieldGetter(String name) {
+    return access == Access.FIELD
+      ? LambdaMetafactoryHelper.getIntFieldLambda(name, clazz)
+      : LambdaMetafactoryHelper.getIntPropertyLambda(name, clazz);
+  }
+
+  @Override
+  public ToLongFunction<K> longFieldGetter(String name) {
+    return access == Access.FIELD
+      ? LambdaMetafactoryHelper.getLongFieldLambda(name, clazz)
+      : LambdaMetafactoryHelper.getLongPropertyLambda(name, clazz);
+  }
+
+  @Override
+  public ToDoubleFunction<K> doubleFieldGetter(String name) {
+    return access == Access.FIELD
+      ? LambdaMetafactoryHelper.getDoubleFieldLambda(name, clazz)
+      : LambdaMetafactoryHelper.getDoublePropertyLambda(name, clazz);
   }
 }
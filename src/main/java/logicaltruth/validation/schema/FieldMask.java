@@ -0,0 +1,131 @@
+package logicaltruth.validation.schema;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+import logicaltruth.validation.constraint.ViolationPath;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * The paths to validate with {@link Schema#validate(Object, FieldMask)}, each selecting the value at
+ * that path and everything below it. Schema entries, list elements and map values outside the mask
+ * are skipped without reading them. Checks on the values on the way to a masked path, like a
+ * {@code required().orElseBreak()} guarding a nested schema, still run; an entry that cannot be
+ * followed into, e.g. one added with {@link Schema#constraint}, runs in full.
+ */
+public final class FieldMask {
+  private final PathWalker.Selection selection = new PathWalker.Selection();
+
+  private FieldMask() {
+  }
+
+  public static FieldMask of(ViolationPath... paths) {
+    return of(Arrays.asList(paths));
+  }
+
+  public static FieldMask of(Collection<ViolationPath> paths) {
+    FieldMask mask = new FieldMask();
+    for(ViolationPath path : paths) {
+      mask.add(path);
+    }
+    return mask;
+  }
+
+  /**
+   * Mask of paths in their rendered form, e.g. {@code .address.street}, {@code .someList[2]} or
+   * {@code .someMap[key]}.
+   */
+  public static FieldMask parse(String... paths) {
+    FieldMask mask = new FieldMask();
+    for(String path : paths) {
+      mask.add(parsePath(path));
+    }
+    return mask;
+  }
+
+  private static ViolationPath parsePath(String path) {
+    ViolationPath parsed = ViolationPath.ROOT;
+    int i = 0;
+    while(i < path.length()) {
+      char c = path.charAt(i);
+      if(c == '.') {
+        int end = i + 1;
+        while(end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+          end++;
+        }
+        if(end > i + 1) {
+          parsed = parsed.field(path.substring(i + 1, end));
+        }
+        i = end;
+      } else if(c == '[') {
+        int end = path.indexOf(']', i);
+        if(end < 0) {
+          throw new IllegalArgumentException("Unclosed [ in " + path);
+        }
+        String segment = path.substring(i + 1, end);
+        parsed = isIndex(segment) ? parsed.index(Integer.parseInt(segment)) : parsed.key(segment);
+        i = end + 1;
+      } else {
+        throw new IllegalArgumentException("Unexpected '" + c + "' in " + path);
+      }
+    }
+    return parsed;
+  }
+
+  private static boolean isIndex(String segment) {
+    if(segment.isEmpty() || segment.length() > 9) {
+      return false;
+    }
+    for(int i = 0; i < segment.length(); i++) {
+      if(!Character.isDigit(segment.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void add(ViolationPath path) {
+    selection.select(path);
+  }
+
+  <K> ValidationStatus validate(Schema<K> schema, K value, ValidationContext context) {
+    return new Walker().validate((Constraint<Object>) schema, value, selection, context);
+  }
+
+  // parts outside the mask are skipped
+  private static final class Walker extends PathWalker {
+    @Override
+    boolean followsInto(Schema<?> schema) {
+      return true;
+    }
+
+    @Override
+    boolean inFull(ValidationContext context) {
+      return false;
+    }
+
+    @Override
+    TreeSet<Integer> indexes(Selection selection, ValidationContext context) {
+      TreeSet<Integer> indexes = new TreeSet<>();
+      for(ViolationPath path : selection.children.keySet()) {
+        if(path.getIndex() >= 0) {
+          indexes.add(path.getIndex());
+        }
+      }
+      return indexes;
+    }
+
+    @Override
+    ValidationStatus outside(ValidationContext context) {
+      return ValidationStatus.VALID;
+    }
+
+    @Override
+    ValidationStatus outsideEntry(Constraint<Object> constraint, Object value, ValidationContext context) {
+      return ValidationStatus.VALID;
+    }
+  }
+}
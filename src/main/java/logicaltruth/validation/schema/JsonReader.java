@@ -0,0 +1,514 @@
+package logicaltruth.validation.schema;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ViolationCode;
+import logicaltruth.validation.constraint.impl.AndChainConstraint;
+import logicaltruth.validation.constraint.impl.AndConstraint;
+import logicaltruth.validation.constraint.impl.BreakConstraint;
+import logicaltruth.validation.constraint.impl.CompositeConstraint;
+import logicaltruth.validation.constraint.impl.FusedChecksConstraint;
+import logicaltruth.validation.constraint.impl.ListConstraint;
+import logicaltruth.validation.constraint.impl.MapConstraint;
+import logicaltruth.validation.constraint.impl.MemoizingConstraint;
+import logicaltruth.validation.constraint.impl.OrChainConstraint;
+import logicaltruth.validation.constraint.impl.OrConstraint;
+import logicaltruth.validation.constraint.impl.ProjectionConstraint;
+import logicaltruth.validation.constraint.impl.StandardConstraint;
+import logicaltruth.validation.constraint.impl.ThrowingConstraint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a UTF-8 JSON document into maps, lists, strings, numbers and booleans for
+ * {@link MapSchema#validateJson(byte[])}, keeping only the object members a {@link Shape} asks for.
+ * Skipped members are scanned over without being decoded. A stream is read through a buffer that
+ * only grows past {@value #BUFFER_SIZE} bytes for a single string or number longer than that.
+ */
+final class JsonReader {
+  private static final int BUFFER_SIZE = 8192;
+
+  private final InputStream stream;
+  private byte[] in;
+  private int end;
+  private int pos;
+  // start of the token being read, kept in the buffer when it is refilled; -1 when none
+  private int mark = -1;
+  // stream offset of in[0]
+  private long shifted;
+  // brackets opened and not yet closed in the value being skipped
+  private byte[] brackets = new byte[16];
+
+  JsonReader(byte[] in, int offset, int length) {
+    this.stream = null;
+    this.in = in;
+    this.pos = offset;
+    this.end = offset + length;
+  }
+
+  JsonReader(InputStream stream) {
+    this.stream = stream;
+    this.in = new byte[BUFFER_SIZE];
+  }
+
+  Object readDocument(Shape shape) {
+    Object value = readValue(shape);
+    skipWhitespace();
+    if(available()) {
+      throw error("Unexpected content after the document");
+    }
+    return value;
+  }
+
+  private Object readValue(Shape shape) {
+    skipWhitespace();
+    if(!available()) {
+      throw error("Unexpected end of input");
+    }
+    switch(in[pos]) {
+      case '{':
+        return readObject(shape);
+      case '[':
+        return readArray(shape);
+      case '"':
+        return readString();
+      case 't':
+        readLiteral("true");
+        return Boolean.TRUE;
+      case 'f':
+        readLiteral("false");
+        return Boolean.FALSE;
+      case 'n':
+        readLiteral("null");
+        return null;
+      default:
+        return readNumber();
+    }
+  }
+
+  private Map<String, Object> readObject(Shape shape) {
+    pos++;
+    Map<String, Object> map = new HashMap<>();
+    skipWhitespace();
+    if(peek() == '}') {
+      pos++;
+      return map;
+    }
+    while(true) {
+      skipWhitespace();
+      expect('"');
+      mark = pos;
+      boolean escaped = skipString();
+      int start = mark;
+      int stop = pos - 1;
+      mark = -1;
+
+      String name = null;
+      Shape member;
+      if(shape.all) {
+        name = decodeString(start, stop, escaped);
+        member = Shape.ALL;
+      } else {
+        int field = escaped ? shape.find(name = decodeString(start, stop, true)) : shape.find(in, start, stop);
+        if(field >= 0) {
+          name = shape.names[field];
+          member = shape.fields[field];
+        } else {
+          member = shape.each;
+          if(member != null && name == null) {
+            name = decodeString(start, stop, false);
+          }
+        }
+      }
+
+      skipWhitespace();
+      expect(':');
+      if(member == null) {
+        skipValue();
+      } else {
+        map.put(name, readValue(member));
+      }
+      skipWhitespace();
+      if(peek() == ',') {
+        pos++;
+      } else {
+        expect('}');
+        return map;
+      }
+    }
+  }
+
+  private List<Object> readArray(Shape shape) {
+    pos++;
+    List<Object> list = new ArrayList<>();
+    Shape element = shape.all ? Shape.ALL : shape.each != null ? shape.each : Shape.EMPTY;
+    skipWhitespace();
+    if(peek() == ']') {
+      pos++;
+      return list;
+    }
+    while(true) {
+      list.add(readValue(element));
+      skipWhitespace();
+      if(peek() == ',') {
+        pos++;
+      } else {
+        expect(']');
+        return list;
+      }
+    }
+  }
+
+  private String readString() {
+    pos++;
+    mark = pos;
+    boolean escaped = skipString();
+    int start = mark;
+    mark = -1;
+    return decodeString(start, pos - 1, escaped);
+  }
+
+  // moves past the closing quote of a string whose opening quote was read, telling whether it had escapes
+  private boolean skipString() {
+    boolean escaped = false;
+    while(available()) {
+      byte b = in[pos++];
+      if(b == '"') {
+        return escaped;
+      }
+      if(b == '\\') {
+        escaped = true;
+        pos++;
+      }
+    }
+    throw error("Unterminated string");
+  }
+
+  private String decodeString(int start, int stop, boolean escaped) {
+    if(!escaped) {
+      return new String(in, start, stop - start, StandardCharsets.UTF_8);
+    }
+    StringBuilder sb = new StringBuilder(stop - start);
+    int run = start;
+    for(int i = start; i < stop; i++) {
+      if(in[i] != '\\') {
+        continue;
+      }
+      sb.append(new String(in, run, i - run, StandardCharsets.UTF_8));
+      char c = (char) in[++i];
+      switch(c) {
+        case 'b':
+          sb.append('\b');
+          break;
+        case 'f':
+          sb.append('\f');
+          break;
+        case 'n':
+          sb.append('\n');
+          break;
+        case 'r':
+          sb.append('\r');
+          break;
+        case 't':
+          sb.append('\t');
+          break;
+        case 'u':
+          if(i + 4 >= stop) {
+            throw error("Invalid unicode escape");
+          }
+          try {
+            sb.append((char) Integer.parseInt(new String(in, i + 1, 4, StandardCharsets.US_ASCII), 16));
+          } catch(NumberFormatException e) {
+            throw error("Invalid unicode escape");
+          }
+          i += 4;
+          break;
+        case '"':
+        case '\\':
+        case '/':
+          sb.append(c);
+          break;
+        default:
+          throw error("Invalid escape \\" + c);
+      }
+      run = i + 1;
+    }
+    return sb.append(new String(in, run, stop - run, StandardCharsets.UTF_8)).toString();
+  }
+
+  private Object readNumber() {
+    mark = pos;
+    boolean integral = true;
+    while(available()) {
+      byte b = in[pos];
+      if(b == '.' || b == 'e' || b == 'E') {
+        integral = false;
+      } else if(!(b >= '0' && b <= '9') && b != '-' && b != '+') {
+        break;
+      }
+      pos++;
+    }
+    int start = mark;
+    mark = -1;
+    String text = new String(in, start, pos - start, StandardCharsets.US_ASCII);
+    try {
+      if(!integral) {
+        return Double.parseDouble(text);
+      }
+      if(text.length() < 19) {
+        long value = Long.parseLong(text);
+        return value == (int) value ? (Object) (int) value : (Object) value;
+      }
+      BigInteger value = new BigInteger(text);
+      return value.bitLength() < 64 ? (Object) value.longValue() : value;
+    } catch(NumberFormatException e) {
+      pos = start;
+      throw error("Invalid value");
+    }
+  }
+
+  private void readLiteral(String literal) {
+    for(int i = 0; i < literal.length(); i++) {
+      if(!available() || in[pos++] != literal.charAt(i)) {
+        throw error("Invalid value");
+      }
+    }
+  }
+
+  private void skipValue() {
+    skipWhitespace();
+    int depth = 0;
+    do {
+      if(!available()) {
+        throw error("Unexpected end of input");
+      }
+      byte b = in[pos++];
+      if(b == '"') {
+        skipString();
+      } else if(b == '{' || b == '[') {
+        if(depth == brackets.length) {
+          brackets = Arrays.copyOf(brackets, depth * 2);
+        }
+        brackets[depth++] = b;
+      } else if(b == '}' || b == ']') {
+        if(depth == 0) {
+          throw error("Unbalanced brackets");
+        }
+        if(brackets[--depth] != (b == '}' ? '{' : '[')) {
+          throw error("Mismatched brackets");
+        }
+      } else if(depth == 0) {
+        // a scalar member ends at the next delimiter
+        while(available() && in[pos] != ',' && in[pos] != '}' && in[pos] != ']'
+          && in[pos] != ' ' && in[pos] != '\t' && in[pos] != '\n' && in[pos] != '\r') {
+          pos++;
+        }
+      }
+    } while(depth > 0);
+  }
+
+  private void skipWhitespace() {
+    while(available()) {
+      byte b = in[pos];
+      if(b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+        return;
+      }
+      pos++;
+    }
+  }
+
+  private int peek() {
+    return available() ? in[pos] : -1;
+  }
+
+  private boolean available() {
+    while(pos >= end) {
+      if(!fill()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // reads more of the stream, dropping what was read before the current token
+  private boolean fill() {
+    if(stream == null) {
+      return false;
+    }
+    int keep = mark >= 0 ? mark : Math.min(pos, end);
+    if(keep > 0) {
+      System.arraycopy(in, keep, in, 0, end - keep);
+      end -= keep;
+      pos -= keep;
+      if(mark >= 0) {
+        mark -= keep;
+      }
+      shifted += keep;
+    }
+    if(end == in.length) {
+      in = Arrays.copyOf(in, in.length * 2);
+    }
+    int read;
+    try {
+      read = stream.read(in, end, in.length - end);
+    } catch(IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if(read <= 0) {
+      return false;
+    }
+    end += read;
+    return true;
+  }
+
+  private void expect(char c) {
+    if(peek() != c) {
+      throw error("Expected '" + c + "'");
+    }
+    pos++;
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException("Malformed JSON at offset " + (shifted + pos) + ": " + message);
+  }
+
+  /**
+   * The parts of a JSON value some constraint can look at: every object member and array element
+   * when {@code all} is set, otherwise the named object members with their own shapes, and array
+   * elements and any other members with the shape {@code each} (members are skipped when it is null).
+   * Scalars are always read.
+   */
+  static final class Shape {
+    static final Shape ALL = new Shape(true);
+    static final Shape EMPTY = new Shape(false);
+
+    private final boolean all;
+    private String[] names = new String[0];
+    private byte[][] nameBytes = new byte[0][];
+    private Shape[] fields = new Shape[0];
+    private Shape each;
+
+    private Shape(boolean all) {
+      this.all = all;
+    }
+
+    /**
+     * Shape of the maps a schema validates; everything when one of its entries is not a plain field.
+     */
+    static Shape of(Schema<?> schema) {
+      return of(schema, new IdentityHashMap<>());
+    }
+
+    private static Shape of(Schema<?> schema, Map<Schema<?>, Shape> shapes) {
+      Shape shape = shapes.get(schema);
+      if(shape != null) {
+        return shape;
+      }
+      List<? extends Map.Entry<String, ? extends Constraint<?>>> entries = schema.entries();
+      for(Map.Entry<String, ? extends Constraint<?>> entry : entries) {
+        if(!schema.isFieldEntry(entry.getKey())) {
+          shapes.put(schema, ALL);
+          return ALL;
+        }
+      }
+
+      shape = new Shape(false);
+      shapes.put(schema, shape);
+      shape.names = new String[entries.size()];
+      shape.nameBytes = new byte[entries.size()][];
+      shape.fields = new Shape[entries.size()];
+      for(int i = 0; i < entries.size(); i++) {
+        Map.Entry<String, ? extends Constraint<?>> entry = entries.get(i);
+        shape.names[i] = entry.getKey();
+        shape.nameBytes[i] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+        // unboxed int, long and double fields are read through an opaque getter, but are scalars
+        shape.fields[i] = entry.getValue() instanceof ProjectionConstraint
+          ? of(((ProjectionConstraint<?, ?>) entry.getValue()).getConstraint(), shapes)
+          : ALL;
+      }
+      return shape;
+    }
+
+    private static Shape of(Constraint<?> constraint, Map<Schema<?>, Shape> shapes) {
+      if(constraint instanceof MapSchema) {
+        return of((Schema<?>) constraint, shapes);
+      }
+      if(constraint instanceof ListConstraint) {
+        return each(of(((ListConstraint<?>) constraint).getConstraint(), shapes));
+      }
+      if(constraint instanceof MapConstraint) {
+        return each(of(((MapConstraint<?>) constraint).getConstraint(), shapes));
+      }
+      if(constraint instanceof AndConstraint || constraint instanceof OrConstraint || constraint instanceof BreakConstraint
+        || constraint instanceof AndChainConstraint || constraint instanceof OrChainConstraint
+        || constraint instanceof FusedChecksConstraint || constraint instanceof MemoizingConstraint
+        || constraint instanceof ThrowingConstraint) {
+        Shape shape = EMPTY;
+        for(Constraint<?> child : ((CompositeConstraint) constraint).getConstraints()) {
+          shape = merge(shape, of(child, shapes));
+        }
+        return shape;
+      }
+      if(constraint instanceof StandardConstraint && ((StandardConstraint<?>) constraint).isBuiltIn()) {
+        ViolationCode code = ((StandardConstraint<?>) constraint).getCode();
+        if(ViolationCode.NOT_NULL.equals(code) || ViolationCode.NULL.equals(code)) {
+          return EMPTY;
+        }
+      }
+      return ALL;
+    }
+
+    private static Shape each(Shape each) {
+      if(each == ALL) {
+        return ALL;
+      }
+      Shape shape = new Shape(false);
+      shape.each = each;
+      return shape;
+    }
+
+    // shapes are only combined with EMPTY in practice, e.g. by a null check guarding a schema
+    private static Shape merge(Shape shape, Shape other) {
+      if(shape == other || other == EMPTY) {
+        return shape;
+      }
+      return shape == EMPTY ? other : ALL;
+    }
+
+    private int find(String name) {
+      for(int i = 0; i < names.length; i++) {
+        if(names[i].equals(name)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private int find(byte[] in, int start, int stop) {
+      int length = stop - start;
+      for(int i = 0; i < nameBytes.length; i++) {
+        byte[] name = nameBytes[i];
+        if(name.length != length) {
+          continue;
+        }
+        int j = 0;
+        while(j < length && name[j] == in[start + j]) {
+          j++;
+        }
+        if(j == length) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+}
@@ -1,13 +1,76 @@
 package logicaltruth.validation.schema;
 
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Map;
 import java.util.function.Function;
 
 public class MapSchema extends Schema<Map> {
+  private JsonReader.Shape jsonShape;
 
   @Override
   public <T> Function<Map, T> fieldGetter(String name, Class<T> fieldType) {
     return value -> (T) value.get(name);
   }
-}
 
+  /**
+   * Validates a UTF-8 JSON object without parsing it into a full map first: only the members read
+   * by this schema and the map schemas nested in it are decoded, every other subtree is skipped, and
+   * the result holds the partial map. Violations are the same as for the fully parsed document.
+   * Entries added with {@link #constraint} or {@link #projection} may read any member, so a schema
+   * with such entries gets the whole object. Throws IllegalArgumentException for malformed JSON
+   * and for a document that is not an object, {@code null} included.
+   */
+  public ValidationResult validateJson(byte[] json) {
+    return validateJson(json, new ValidationContext());
+  }
+
+  public ValidationResult validateJson(byte[] json, ValidationContext context) {
+    return validateJson(json, 0, json.length, context);
+  }
+
+  public ValidationResult validateJson(byte[] json, int offset, int length, ValidationContext context) {
+    return validateDocument(new JsonReader(json, offset, length).readDocument(jsonShape()), context);
+  }
+
+  /**
+   * Like {@link #validateJson(byte[])}, reading the stream as the document is parsed: skipped
+   * subtrees are scanned through a small buffer and never held in memory as a whole.
+   */
+  public ValidationResult validateJson(InputStream in) throws IOException {
+    return validateJson(in, new ValidationContext());
+  }
+
+  public ValidationResult validateJson(InputStream in, ValidationContext context) throws IOException {
+    Object document;
+    try {
+      document = new JsonReader(in).readDocument(jsonShape());
+    } catch(UncheckedIOException e) {
+      throw e.getCause();
+    }
+    return validateDocument(document, context);
+  }
+
+  private ValidationResult validateDocument(Object document, ValidationContext context) {
+    if(!(document instanceof Map)) {
+      throw new IllegalArgumentException("Expected a JSON object");
+    }
+    return validate((Map) document, context);
+  }
+
+  // only cached once compiled, as nested schemas can still change before that
+  private JsonReader.Shape jsonShape() {
+    JsonReader.Shape shape = jsonShape;
+    if(shape == null) {
+      shape = JsonReader.Shape.of(this);
+      if(isCompiled()) {
+        jsonShape = shape;
+      }
+    }
+    return shape;
+  }
+}
@@ -0,0 +1,246 @@
+package logicaltruth.validation.schema;
+
+import logicaltruth.validation.constraint.ConstraintViolation;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Validates a newline delimited JSON file, one object per line, against a {@link MapSchema} on all
+ * cores: the file is split in chunks at line boundaries, each chunk is memory-mapped and its lines
+ * validated with {@link MapSchema#validateJson(byte[], int, int, ValidationContext)} on the pool, and
+ * the results of the lines that are not valid are handed to a {@link LineSink} in line order. No
+ * more chunks than the pool's parallelism are validated or waiting for the sink at a time, so the
+ * results held are those of a few chunks whatever the size of the file. A malformed line, or one
+ * whose values do not have the types the schema reads them as, is reported with a single violation
+ * carrying the error. Blank lines are skipped but counted, so line numbers match the file.
+ */
+public class NdjsonValidator {
+  private static final int DEFAULT_CHUNK_SIZE = 16 << 20;
+  private static final int BLOCK_SIZE = 64 << 10;
+
+  private final MapSchema schema;
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+
+  public NdjsonValidator(MapSchema schema) {
+    this(schema, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+  }
+
+  public NdjsonValidator(MapSchema schema, ForkJoinPool pool, int chunkSize) {
+    if(chunkSize < 1) {
+      throw new IllegalArgumentException("chunkSize must be at least 1");
+    }
+    this.schema = schema;
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Receives the result of every line that is not valid, with its 1-based line number.
+   */
+  public interface LineSink {
+    void accept(long line, ValidationResult result);
+  }
+
+  public Summary validate(Path file, LineSink sink) throws IOException {
+    try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long[] bounds = split(channel);
+      int inFlight = Math.max(1, pool.getParallelism());
+      Deque<ForkJoinTask<Chunk>> tasks = new ArrayDeque<>(inFlight);
+      int next = 0;
+
+      Summary summary = new Summary();
+      try {
+        while(next + 1 < bounds.length || !tasks.isEmpty()) {
+          while(next + 1 < bounds.length && tasks.size() < inFlight) {
+            long start = bounds[next];
+            long end = bounds[++next];
+            tasks.add(pool.submit(() -> validateChunk(channel, start, end)));
+          }
+          Chunk chunk = tasks.poll().join();
+          for(int i = 0; i < chunk.results.size(); i++) {
+            sink.accept(summary.lines + chunk.lineIndexes[i] + 1, chunk.results.get(i));
+          }
+          summary.add(chunk);
+        }
+      } catch(UncheckedIOException e) {
+        throw e.getCause();
+      } finally {
+        tasks.forEach(task -> task.cancel(false));
+      }
+      return summary;
+    }
+  }
+
+  // chunk boundaries, each one just past a newline
+  private long[] split(FileChannel channel) throws IOException {
+    long size = channel.size();
+    List<Long> bounds = new ArrayList<>();
+    bounds.add(0L);
+    ByteBuffer window = ByteBuffer.allocate(BLOCK_SIZE);
+    long position = chunkSize;
+    while(position < size) {
+      long newline = -1;
+      while(newline < 0 && position < size) {
+        window.clear();
+        int read = channel.read(window, position);
+        for(int i = 0; i < read && newline < 0; i++) {
+          if(window.get(i) == '\n') {
+            newline = position + i;
+          }
+        }
+        position += Math.max(read, 0);
+      }
+      if(newline < 0) {
+        break;
+      }
+      bounds.add(newline + 1);
+      position = newline + 1 + chunkSize;
+    }
+    if(bounds.get(bounds.size() - 1) < size) {
+      bounds.add(size);
+    }
+    long[] result = new long[bounds.size()];
+    for(int i = 0; i < result.length; i++) {
+      result[i] = bounds.get(i);
+    }
+    return result;
+  }
+
+  private Chunk validateChunk(FileChannel channel, long start, long end) {
+    MappedByteBuffer buffer;
+    try {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+    } catch(IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    Chunk chunk = new Chunk(new ValidationContext());
+    byte[] block = new byte[BLOCK_SIZE];
+    int carry = 0;
+    while(buffer.hasRemaining()) {
+      int read = Math.min(block.length - carry, buffer.remaining());
+      buffer.get(block, carry, read);
+      int limit = carry + read;
+      int lineStart = 0;
+      for(int i = carry; i < limit; i++) {
+        if(block[i] == '\n') {
+          chunk.validateLine(block, lineStart, i - lineStart);
+          lineStart = i + 1;
+        }
+      }
+      carry = limit - lineStart;
+      if(carry == block.length) {
+        block = Arrays.copyOf(block, block.length * 2);
+      } else {
+        System.arraycopy(block, lineStart, block, 0, carry);
+      }
+    }
+    if(carry > 0) {
+      chunk.validateLine(block, 0, carry);
+    }
+    return chunk;
+  }
+
+  private final class Chunk {
+    private final ValidationContext context;
+    private final List<ValidationResult> results = new ArrayList<>();
+    private long[] lineIndexes = new long[16];
+    private long lines;
+    private long valid;
+    private long invalid;
+    private long malformed;
+
+    private Chunk(ValidationContext context) {
+      this.context = context;
+    }
+
+    private void validateLine(byte[] bytes, int offset, int length) {
+      long line = lines++;
+      if(isBlank(bytes, offset, length)) {
+        return;
+      }
+      ValidationResult result;
+      try {
+        result = schema.validateJson(bytes, offset, length, context);
+      } catch(IllegalArgumentException | ClassCastException e) {
+        malformed++;
+        result = new ValidationResult(null);
+        result.addConstraintViolation(new ConstraintViolation(e.getMessage()));
+        add(line, result);
+        return;
+      }
+      if(result.isValid()) {
+        valid++;
+      } else {
+        invalid++;
+        add(line, result);
+      }
+    }
+
+    private void add(long line, ValidationResult result) {
+      if(results.size() == lineIndexes.length) {
+        lineIndexes = Arrays.copyOf(lineIndexes, lineIndexes.length * 2);
+      }
+      lineIndexes[results.size()] = line;
+      results.add(result);
+    }
+
+    private boolean isBlank(byte[] bytes, int offset, int length) {
+      for(int i = offset; i < offset + length; i++) {
+        byte b = bytes[i];
+        if(b != ' ' && b != '\t' && b != '\r') {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Line counts of a validated file; lines that are neither valid, invalid nor malformed are blank.
+   */
+  public static final class Summary {
+    private long lines;
+    private long valid;
+    private long invalid;
+    private long malformed;
+
+    private void add(Chunk chunk) {
+      lines += chunk.lines;
+      valid += chunk.valid;
+      invalid += chunk.invalid;
+      malformed += chunk.malformed;
+    }
+
+    public long getLineCount() {
+      return lines;
+    }
+
+    public long getValidCount() {
+      return valid;
+    }
+
+    public long getInvalidCount() {
+      return invalid;
+    }
+
+    public long getMalformedCount() {
+      return malformed;
+    }
+  }
+}
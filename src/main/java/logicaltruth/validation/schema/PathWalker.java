@@ -0,0 +1,220 @@
+package logicaltruth.validation.schema;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationStatus;
+import logicaltruth.validation.constraint.ViolationPath;
+import logicaltruth.validation.constraint.impl.AndChainConstraint;
+import logicaltruth.validation.constraint.impl.AndConstraint;
+import logicaltruth.validation.constraint.impl.BreakConstraint;
+import logicaltruth.validation.constraint.impl.FusedChecksConstraint;
+import logicaltruth.validation.constraint.impl.ListConstraint;
+import logicaltruth.validation.constraint.impl.MapConstraint;
+import logicaltruth.validation.constraint.impl.ProjectionConstraint;
+import logicaltruth.validation.constraint.impl.StandardConstraint;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Validation that follows the constraint tree only along a {@link Selection} of paths, shared by
+ * {@link FieldMask} and {@link Revalidation}. Schemas, lists, maps and {@code and}/{@code orElseBreak}
+ * chains, as built or as optimized, on a selected path are descended into; their parts outside the
+ * selection are left to {@link #outside}. Any other constraint on the way, and the value at a path
+ * selected whole, is validated in full.
+ */
+abstract class PathWalker {
+  /**
+   * Whether the walk follows into the entries of a schema rather than validating it in full.
+   */
+  abstract boolean followsInto(Schema<?> schema);
+
+  /**
+   * Whether the value at the current path is validated in full although it is not selected whole.
+   */
+  abstract boolean inFull(ValidationContext context);
+
+  /**
+   * Indexes of the list at the current path to visit, or null to validate the list in full.
+   */
+  abstract TreeSet<Integer> indexes(Selection selection, ValidationContext context);
+
+  /**
+   * Status of the field, list element or map value at the current path, which is not selected.
+   */
+  abstract ValidationStatus outside(ValidationContext context);
+
+  /**
+   * Status of a schema entry other than a field, e.g. one added with {@link Schema#constraint},
+   * which is not selected.
+   */
+  abstract ValidationStatus outsideEntry(Constraint<Object> constraint, Object value, ValidationContext context);
+
+  final ValidationStatus validate(Constraint<Object> constraint, Object value, Selection selection, ValidationContext context) {
+    if(selection.whole || value == null || inFull(context)) {
+      return constraint.validateNested(value, context);
+    }
+    if(constraint instanceof Schema && followsInto((Schema<?>) constraint)) {
+      return validateSchema((Schema<Object>) constraint, value, selection, context);
+    }
+    if(constraint instanceof ListConstraint) {
+      return validateList((ListConstraint<Object>) (Constraint<?>) constraint, (List<Object>) value, selection, context);
+    }
+    if(constraint instanceof MapConstraint) {
+      return validateMap((MapConstraint<Object>) (Constraint<?>) constraint, (Map<Object, Object>) value, selection, context);
+    }
+    if((constraint instanceof AndConstraint || constraint instanceof AndChainConstraint || constraint instanceof BreakConstraint)
+      && descents(constraint) <= 1) {
+      return validateChain(constraint, value, selection, context);
+    }
+    return constraint.validateNested(value, context);
+  }
+
+  final ValidationStatus validateSchema(Schema<Object> schema, Object value, Selection selection, ValidationContext context) {
+    if(schema.isFailFast()) {
+      context.enterFailFast();
+    }
+    ValidationStatus status = ValidationStatus.VALID;
+    for(Map.Entry<String, Constraint<Object>> entry : schema.entries()) {
+      context.enterField(entry.getKey());
+      Selection entrySelection = selection.children.get(context.getPath());
+      Constraint<Object> constraint = entry.getValue();
+      boolean field = schema.isFieldEntry(entry.getKey());
+      ValidationStatus entryStatus;
+      if(entrySelection == null) {
+        entryStatus = field ? outside(context) : outsideEntry(constraint, value, context);
+      } else if(!entrySelection.whole && field && constraint instanceof ProjectionConstraint) {
+        ProjectionConstraint<Object, Object> projection = (ProjectionConstraint<Object, Object>) constraint;
+        entryStatus = validate(projection.getConstraint(), projection.getLens().apply(value), entrySelection, context);
+      } else {
+        entryStatus = constraint.validateNested(value, context);
+      }
+      context.exit();
+      if(entryStatus != ValidationStatus.VALID) {
+        status = ValidationStatus.INVALID;
+        if(context.shouldStop()) {
+          break;
+        }
+      }
+    }
+    if(schema.isFailFast()) {
+      context.exitFailFast();
+    }
+    return status;
+  }
+
+  private ValidationStatus validateList(ListConstraint<Object> constraint, List<Object> value, Selection selection, ValidationContext context) {
+    TreeSet<Integer> indexes = indexes(selection, context);
+    if(indexes == null) {
+      return constraint.validateNested(value, context);
+    }
+    ValidationStatus status = ValidationStatus.VALID;
+    for(int i : indexes.headSet(value.size())) {
+      context.enterIndex(i);
+      Selection elementSelection = selection.children.get(context.getPath());
+      ValidationStatus elementStatus = elementSelection == null
+        ? outside(context)
+        : validate(constraint.getConstraint(), value.get(i), elementSelection, context);
+      context.exit();
+      if(elementStatus != ValidationStatus.VALID) {
+        status = ValidationStatus.INVALID;
+        if(context.shouldStop()) {
+          break;
+        }
+      }
+    }
+    return status;
+  }
+
+  private ValidationStatus validateMap(MapConstraint<Object> constraint, Map<Object, Object> value, Selection selection, ValidationContext context) {
+    ValidationStatus status = ValidationStatus.VALID;
+    for(Map.Entry<Object, Object> entry : value.entrySet()) {
+      context.enterKey(entry.getKey());
+      Selection valueSelection = selection.children.get(context.getPath());
+      ValidationStatus valueStatus = valueSelection == null
+        ? outside(context)
+        : validate(constraint.getConstraint(), entry.getValue(), valueSelection, context);
+      context.exit();
+      if(valueStatus != ValidationStatus.VALID) {
+        status = ValidationStatus.INVALID;
+        if(context.shouldStop()) {
+          break;
+        }
+      }
+    }
+    return status;
+  }
+
+  // and/orElseBreak, nested or flattened, over built-in checks and at most one constraint descending into the value
+  private ValidationStatus validateChain(Constraint<Object> constraint, Object value, Selection selection, ValidationContext context) {
+    if(constraint instanceof AndConstraint) {
+      AndConstraint<Object> and = (AndConstraint<Object>) constraint;
+      ValidationStatus firstStatus = validateChain(and.getFirst(), value, selection, context);
+      if(firstStatus == ValidationStatus.BREAK || (firstStatus != ValidationStatus.VALID && context.shouldStop())) {
+        return firstStatus;
+      }
+      ValidationStatus otherStatus = validateChain(and.getOther(), value, selection, context);
+      if(firstStatus != ValidationStatus.VALID && otherStatus != ValidationStatus.VALID) {
+        return ValidationStatus.INVALID;
+      }
+      return firstStatus != ValidationStatus.VALID ? firstStatus : otherStatus;
+    }
+    if(constraint instanceof AndChainConstraint) {
+      List<Constraint<Object>> parts = ((AndChainConstraint<Object>) constraint).getParts();
+      ValidationStatus status = validateChain(parts.get(0), value, selection, context);
+      for(int i = 1; i < parts.size(); i++) {
+        if(status == ValidationStatus.BREAK || (status != ValidationStatus.VALID && context.shouldStop())) {
+          return status;
+        }
+        ValidationStatus otherStatus = validateChain(parts.get(i), value, selection, context);
+        if(status != ValidationStatus.VALID && otherStatus != ValidationStatus.VALID) {
+          status = ValidationStatus.INVALID;
+        } else if(status == ValidationStatus.VALID) {
+          status = otherStatus;
+        }
+      }
+      return status;
+    }
+    if(constraint instanceof BreakConstraint) {
+      Constraint<Object> delegate = ((BreakConstraint<Object>) constraint).getDelegate();
+      return validateChain(delegate, value, selection, context) == ValidationStatus.VALID ? ValidationStatus.VALID : ValidationStatus.BREAK;
+    }
+    return validate(constraint, value, selection, context);
+  }
+
+  // number of constraints in an and/orElseBreak chain that may report below the value
+  private static int descents(Constraint<?> constraint) {
+    if(constraint instanceof AndConstraint) {
+      return descents(((AndConstraint<?>) constraint).getFirst()) + descents(((AndConstraint<?>) constraint).getOther());
+    }
+    if(constraint instanceof AndChainConstraint) {
+      int descents = 0;
+      for(Constraint<?> part : ((AndChainConstraint<?>) constraint).getParts()) {
+        descents += descents(part);
+      }
+      return descents;
+    }
+    if(constraint instanceof BreakConstraint) {
+      return descents(((BreakConstraint<?>) constraint).getDelegate());
+    }
+    return constraint instanceof StandardConstraint || constraint instanceof FusedChecksConstraint ? 0 : 1;
+  }
+
+  /**
+   * A set of paths as a trie, each path selecting the value at that path whole.
+   */
+  static final class Selection {
+    final Map<ViolationPath, Selection> children = new HashMap<>();
+    boolean whole;
+
+    void select(ViolationPath path) {
+      node(path).whole = true;
+    }
+
+    private Selection node(ViolationPath path) {
+      return path.isRoot() ? this : node(path.getParent()).children.computeIfAbsent(path, p -> new Selection());
+    }
+  }
+}
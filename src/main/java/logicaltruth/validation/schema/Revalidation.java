@@ -0,0 +1,133 @@
+package logicaltruth.validation.schema;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ConstraintViolation;
+import logicaltruth.validation.constraint.ValidationContext;
+import logicaltruth.validation.constraint.ValidationResult;
+import logicaltruth.validation.constraint.ValidationStatus;
+import logicaltruth.validation.constraint.ViolationPath;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Incremental validation behind {@link Schema#revalidate}. Walks the constraint tree only along the
+ * changed paths: at a schema, list or map on such a path, the parts without changes report their
+ * previous violations again, and the parts with changes are descended into. Any other constraint on
+ * the way, and the value at a changed path itself, is validated in full, as are schema entries
+ * other than fields.
+ */
+final class Revalidation extends PathWalker {
+  private final Node previous = new Node();
+
+  private Revalidation(ValidationResult previous) {
+    for(ConstraintViolation violation : previous.getConstraintViolations()) {
+      Node node = this.previous;
+      for(ViolationPath path : chain(violation.getPath())) {
+        node = node.children.computeIfAbsent(path, p -> new Node());
+        node.violations.add(violation);
+      }
+      node.failed = true;
+    }
+  }
+
+  static <K> ValidationResult revalidate(Schema<K> schema, K value, ValidationResult previous, Collection<ViolationPath> changed) {
+    Selection changes = new Selection();
+    for(ViolationPath path : changed) {
+      changes.select(path);
+    }
+    if(changes.whole || !schema.isIncremental() || previous.isTruncated()) {
+      return schema.validate(value);
+    }
+
+    ValidationResult result = new ValidationResult(value);
+    ValidationContext context = new ValidationContext();
+    context.reset(result);
+    new Revalidation(previous).validateSchema((Schema<Object>) schema, value, changes, context);
+    return result;
+  }
+
+  @Override
+  boolean followsInto(Schema<?> schema) {
+    return schema.isIncremental();
+  }
+
+  // a check that failed on the value itself may have kept the previous validation from descending
+  @Override
+  boolean inFull(ValidationContext context) {
+    Node before = find(context.getPath());
+    return before != null && before.failed;
+  }
+
+  // only elements that changed or had violations need a look, the others stay valid
+  @Override
+  TreeSet<Integer> indexes(Selection changes, ValidationContext context) {
+    TreeSet<Integer> indexes = new TreeSet<>();
+    for(ViolationPath changed : changes.children.keySet()) {
+      if(changed.getIndex() < 0) {
+        return null;
+      }
+      indexes.add(changed.getIndex());
+    }
+    Node violations = find(context.getPath());
+    if(violations != null) {
+      for(ViolationPath violated : violations.children.keySet()) {
+        if(violated.getIndex() >= 0) {
+          indexes.add(violated.getIndex());
+        }
+      }
+    }
+    return indexes;
+  }
+
+  @Override
+  ValidationStatus outside(ValidationContext context) {
+    return reuse(context.getPath(), context);
+  }
+
+  @Override
+  ValidationStatus outsideEntry(Constraint<Object> constraint, Object value, ValidationContext context) {
+    return constraint.validateNested(value, context);
+  }
+
+  private ValidationStatus reuse(ViolationPath path, ValidationContext context) {
+    Node node = find(path);
+    if(node == null) {
+      return ValidationStatus.VALID;
+    }
+    for(ConstraintViolation violation : node.violations) {
+      context.report(violation);
+    }
+    return ValidationStatus.INVALID;
+  }
+
+  private Node find(ViolationPath path) {
+    if(path.isRoot()) {
+      return previous;
+    }
+    Node parent = find(path.getParent());
+    return parent == null ? null : parent.children.get(path);
+  }
+
+  // the prefixes of the path from the top down, the path itself last
+  private static List<ViolationPath> chain(ViolationPath path) {
+    List<ViolationPath> chain = new ArrayList<>();
+    for(ViolationPath p = path; !p.isRoot(); p = p.getParent()) {
+      chain.add(p);
+    }
+    Collections.reverse(chain);
+    return chain;
+  }
+
+  private static final class Node {
+    private final Map<ViolationPath, Node> children = new HashMap<>();
+    // previous violations at or below the node, in reporting order
+    private final List<ConstraintViolation> violations = new ArrayList<>();
+    private boolean failed;
+  }
+}
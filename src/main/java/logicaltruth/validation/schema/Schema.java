@@ -1,30 +1,166 @@
 package logicaltruth.validation.schema;
 
 import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ConstraintViolation;
+import logicaltruth.validation.constraint.ValidationContext;
 import logicaltruth.validation.constraint.ValidationResult;
+import logicaltruth.validation.constraint.ValidationStatus;
+import logicaltruth.validation.constraint.ViolationPath;
+import logicaltruth.validation.constraint.impl.AbstractConstraint;
+import logicaltruth.validation.constraint.impl.AndConstraint;
+import logicaltruth.validation.constraint.impl.BreakConstraint;
+import logicaltruth.validation.constraint.impl.CompositeConstraint;
+import logicaltruth.validation.constraint.impl.ConstraintOptimizer;
+import logicaltruth.validation.constraint.impl.DoubleConstraint;
+import logicaltruth.validation.constraint.impl.IntConstraint;
+import logicaltruth.validation.constraint.impl.LongConstraint;
+import logicaltruth.validation.constraint.impl.ProjectionConstraint;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
+import java.util.Spliterator;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import static logicaltruth.validation.constraint.ConstraintViolation.ROOT_CONTEXT;
+public abstract class Schema<K> extends AbstractConstraint<K> implements CompositeConstraint {
+  private static final int DEFAULT_MIN_COST = 64;
+  private static final int DEFAULT_ADAPTIVE_PERIOD = 64;
 
-public abstract class Schema<K> implements Constraint<K> {
   private SortedMap<String, Constraint<K>> constraintMap = new TreeMap<>();
+  private List<Map.Entry<String, Constraint<K>>> entries;
+  // entries added by the field methods, which read nothing but the field of the same name
+  private Set<String> fieldEntries = new HashSet<>();
+  private boolean failFast;
+  private boolean trackReferences;
+  private boolean optimized;
+  private Plan plan;
+  private ForkJoinPool pool;
+  private int minCost;
+  private List<List<Map.Entry<String, Constraint<K>>>> chunks;
+  private int adaptivePeriod;
+  private volatile AdaptiveOrder<K> adaptiveOrder;
 
   public <T> Schema<K> constraint(String name, Constraint<K> constraint) {
-    constraintMap.put(name, constraint);
+    checkNotCompiled();
+    constraintMap.put(name.intern(), constraint);
+    fieldEntries.remove(name);
+    entries = null;
+    chunks = null;
     return this;
   }
 
+  /**
+   * Stops this schema, and everything nested in it, at the first violation.
+   */
+  public Schema<K> failFast() {
+    checkNotCompiled();
+    this.failFast = true;
+    return this;
+  }
+
+  /**
+   * Validates every instance reached by this schema only once per validation, compared by identity:
+   * a bean shared across an object graph reports the violations of its first validation again
+   * under each path it is reached through, and a reference back to an instance still being
+   * validated, i.e. a cycle, is not followed. Meant for schemas nested in themselves or shared by
+   * several fields; a tracked schema is not inlined by {@link #compile()}.
+   */
+  public Schema<K> trackReferences() {
+    checkNotCompiled();
+    this.trackReferences = true;
+    return this;
+  }
+
+  /**
+   * Evaluates the entries of this schema in parallel on {@code pool}, split in runs of consecutive
+   * entries with at least {@code minCost} constraints each; a schema too cheap for two runs stays
+   * sequential. Violations are reported in the same order, and with the same fail-fast and budget
+   * cut-offs, as a sequential validation. Parallel schemas are evaluated entry by entry even when
+   * compiled.
+   */
+  public Schema<K> parallel(ForkJoinPool pool, int minCost) {
+    checkNotCompiled();
+    this.pool = pool;
+    this.minCost = minCost;
+    chunks = null;
+    return this;
+  }
+
+  public Schema<K> parallel() {
+    return parallel(ForkJoinPool.commonPool(), DEFAULT_MIN_COST);
+  }
+
+  /**
+   * Evaluates the entries of this schema in the order that rejects bad values fastest, learned from
+   * the values it validates: the cost and failure rate of each entry are sampled, and every
+   * {@code period} samples the entries are sorted by failures per nanosecond and the new order is
+   * published atomically, without stopping validations in progress. Only fail-fast validations are
+   * reordered, and may report another violation than in declaration order; the others keep it.
+   * Adaptive schemas are evaluated entry by entry even when compiled.
+   */
+  public Schema<K> adaptive(int period) {
+    checkNotCompiled();
+    if(period < 1) {
+      throw new IllegalArgumentException("period must be at least 1");
+    }
+    this.adaptivePeriod = period;
+    adaptiveOrder = null;
+    return this;
+  }
+
+  public Schema<K> adaptive() {
+    return adaptive(DEFAULT_ADAPTIVE_PERIOD);
+  }
+
+  /**
+   * Names of the entries in the order fail-fast validations currently evaluate them.
+   */
+  public List<String> getEvaluationOrder() {
+    if(adaptivePeriod > 0) {
+      return adaptiveOrder().getOrder();
+    }
+    List<String> names = new ArrayList<>();
+    for(Map.Entry<String, Constraint<K>> entry : entries()) {
+      names.add(entry.getKey());
+    }
+    return names;
+  }
+
+  // a new profile whenever the entries change
+  private AdaptiveOrder<K> adaptiveOrder() {
+    List<Map.Entry<String, Constraint<K>>> entries = entries();
+    AdaptiveOrder<K> order = adaptiveOrder;
+    if(order == null || order.getEntries() != entries) {
+      order = new AdaptiveOrder<>(entries, adaptivePeriod);
+      adaptiveOrder = order;
+    }
+    return order;
+  }
+
   public <T> Schema<K> projection(String name, Function<K, T> lens, Constraint<T> constraint) {
-    return constraint(name, value -> constraint.validate(lens.apply(value)));
+    return constraint(name, new ProjectionConstraint<>(lens, constraint));
   }
 
   public <T> Schema<K> field(String name, Class<T> fieldType, Constraint<T> constraint) {
-    return projection(name, fieldGetter(name, fieldType), constraint);
+    return fieldEntry(name, new ProjectionConstraint<>(fieldGetter(name, fieldType), constraint));
   }
 
   public <T> Schema<K> listField(String name, Constraint<List<T>> constraint) {
@@ -43,17 +179,561 @@ public abstract class Schema<K> implements Constraint<K> {
     return field(name, (Class<Map<Object, T>>) (Object) Map.class, constraint);
   }
 
+  /**
+   * Checks an {@code int} field without boxing it. A field holding boxed numbers, like every value
+   * of a {@link MapSchema} or a bean property of type {@code Integer}, is unboxed instead, and a null
+   * value is reported as {@link logicaltruth.validation.constraint.ViolationCode#NOT_NULL}.
+   */
+  public Schema<K> intField(String name, IntConstraint constraint) {
+    return fieldEntry(name, isBoxedField(name, int.class)
+      ? constraint.onBoxed(fieldGetter(name, Number.class))
+      : constraint.on(intFieldGetter(name)));
+  }
+
+  public Schema<K> longField(String name, LongConstraint constraint) {
+    return fieldEntry(name, isBoxedField(name, long.class)
+      ? constraint.onBoxed(fieldGetter(name, Number.class))
+      : constraint.on(longFieldGetter(name)));
+  }
+
+  public Schema<K> doubleField(String name, DoubleConstraint constraint) {
+    return fieldEntry(name, isBoxedField(name, double.class)
+      ? constraint.onBoxed(fieldGetter(name, Number.class))
+      : constraint.on(doubleFieldGetter(name)));
+  }
+
+  private Schema<K> fieldEntry(String name, Constraint<K> constraint) {
+    constraint(name, constraint);
+    fieldEntries.add(name);
+    return this;
+  }
+
+  /**
+   * Freezes this schema, and every schema nested in its constraints, into a flat execution plan:
+   * parallel arrays of path, getter and constraint slots evaluated in a single loop. Schemas used
+   * as field constraints, directly or behind a guard like {@code required().orElseBreak()}, are
+   * inlined into the slots of their parent, and {@link #validate(Object)} reuses a context per
+   * thread instead of allocating one per call. The schema can no longer be modified afterwards;
+   * results are identical to the uncompiled schema.
+   */
+  public Schema<K> compile() {
+    compile(Collections.newSetFromMap(new IdentityHashMap<>()));
+    return this;
+  }
+
+  /**
+   * Rewrites the constraint trees of this schema, and of every schema nested in them, with
+   * {@link ConstraintOptimizer}: flattened {@code and}/{@code or} chains and fused built-in checks.
+   * Violations are identical to the schema as built; must be called before {@link #compile()}.
+   */
+  public Schema<K> optimize() {
+    checkNotCompiled();
+    if(optimized) {
+      return this;
+    }
+    optimized = true;
+    for(Map.Entry<String, Constraint<K>> entry : constraintMap.entrySet()) {
+      optimizeNested(entry.getValue());
+      entry.setValue(ConstraintOptimizer.optimize(entry.getValue()));
+    }
+    entries = null;
+    chunks = null;
+    return this;
+  }
+
+  private static void optimizeNested(Constraint<?> constraint) {
+    if(constraint instanceof Schema) {
+      if(!((Schema<?>) constraint).isCompiled()) {
+        ((Schema<?>) constraint).optimize();
+      }
+    } else if(constraint instanceof CompositeConstraint) {
+      for(Constraint<?> child : ((CompositeConstraint) constraint).getConstraints()) {
+        optimizeNested(child);
+      }
+    }
+  }
+
+  /**
+   * Validates every value, in order, reusing one context for the whole batch.
+   */
+  public List<ValidationResult> validateAll(Iterable<? extends K> values) {
+    ValidationContext context = new ValidationContext();
+    List<ValidationResult> results = values instanceof Collection ? new ArrayList<>(((Collection<?>) values).size()) : new ArrayList<>();
+    for(K value : values) {
+      results.add(validate(value, context));
+    }
+    return results;
+  }
+
+  /**
+   * Validates every value of the stream, in parallel when the stream is parallel, with a context
+   * per thread reused for all the values that thread validates. Results are in encounter order.
+   */
+  public List<ValidationResult> validateAll(Stream<? extends K> values) {
+    return validateAll(values, ValidationContext::new);
+  }
+
+  /**
+   * Like {@link #validateAll(Stream)}, with the per-thread contexts created by {@code contexts},
+   * e.g. {@link ValidationContext#failFast()}.
+   */
+  public List<ValidationResult> validateAll(Stream<? extends K> values, Supplier<ValidationContext> contexts) {
+    return results(values, contexts).collect(Collectors.toList());
+  }
+
+  public List<ValidationResult> validateAll(Spliterator<? extends K> values, boolean parallel) {
+    return validateAll(StreamSupport.stream(values, parallel));
+  }
+
+  /**
+   * Validates like {@link #validateAll(Stream)} and splits the results in the valid ones, under
+   * {@code true}, and the invalid ones, each in encounter order.
+   */
+  public Map<Boolean, List<ValidationResult>> partitionAll(Stream<? extends K> values) {
+    return results(values, ValidationContext::new).collect(Collectors.partitioningBy(ValidationResult::isValid));
+  }
+
+  private Stream<ValidationResult> results(Stream<? extends K> values, Supplier<ValidationContext> contexts) {
+    ThreadLocal<ValidationContext> context = ThreadLocal.withInitial(contexts);
+    return values.map(value -> validate(value, context.get()));
+  }
+
+  /**
+   * Validates a modified value given its previous result and the paths of the values that changed,
+   * e.g. {@code ViolationPath.ROOT.field("address").field("street")}. Only the entries, nested
+   * schemas and collection elements on the way to a change are validated again; violations elsewhere
+   * are taken over from the previous result. Entries not added by the field methods may read any
+   * field, so they always run again. A list or map whose size or keys changed must be passed as a
+   * changed path itself. Fail-fast and reference tracking schemas, and truncated previous results,
+   * are validated in full.
+   */
+  public ValidationResult revalidate(K value, ValidationResult previous, Collection<ViolationPath> changed) {
+    return Revalidation.revalidate(this, value, previous, changed);
+  }
+
+  /**
+   * Validates only the paths selected by the mask, see {@link FieldMask}.
+   */
+  public ValidationResult validate(K value, FieldMask mask) {
+    return validate(value, mask, new ValidationContext());
+  }
+
+  public ValidationResult validate(K value, FieldMask mask, ValidationContext context) {
+    ValidationResult result = new ValidationResult(value);
+    context.reset(result);
+    ValidationStatus status = mask.validate(this, value, context);
+    if(status == ValidationStatus.VALID) {
+      return result;
+    }
+    result.setBreak(status == ValidationStatus.BREAK);
+    if(context.isTruncated()) {
+      result.truncate(context.getMaxViolations());
+    }
+    return result;
+  }
+
+  boolean isFailFast() {
+    return failFast;
+  }
+
+  boolean isIncremental() {
+    return !failFast && !trackReferences;
+  }
+
+  public boolean isCompiled() {
+    return plan != null;
+  }
+
+  @Override
+  public List<Constraint<?>> getConstraints() {
+    return new ArrayList<>(constraintMap.values());
+  }
+
   @Override
   public ValidationResult validate(K value) {
-    ValidationResult results = new ValidationResult(value);
-    constraintMap.forEach((name, v) -> {
-      ValidationResult result = v.validate(value);
-      result.getConstraintViolations().forEach(cv -> cv.appendContext(ROOT_CONTEXT + name));
-      results.addConstraintViolations(result.getConstraintViolations());
-    });
+    Plan plan = this.plan;
+    if(plan == null) {
+      return super.validate(value);
+    }
+    ValidationContext[] idle = plan.contexts.get();
+    ValidationContext context = idle[0];
+    if(context == null) {
+      // reentrant validation on this thread, e.g. from a custom constraint
+      return validate(value, new ValidationContext());
+    }
+    idle[0] = null;
+    try {
+      return validate(value, context);
+    } finally {
+      context.reset(null);
+      idle[0] = context;
+    }
+  }
 
-    return results;
+  @Override
+  public ValidationStatus validateNested(K value, ValidationContext context) {
+    if(trackReferences && value != null) {
+      return validateReference(value, context);
+    }
+    return validateValue(value, context);
+  }
+
+  private ValidationStatus validateValue(K value, ValidationContext context) {
+    if(failFast) {
+      context.enterFailFast();
+    }
+
+    Plan plan = this.plan;
+    ValidationStatus status;
+    if(adaptivePeriod > 0 && context.isFailFast()) {
+      status = adaptiveOrder().validate(value, context);
+    } else if(pool != null) {
+      status = validateParallel(value, context);
+    } else {
+      status = plan != null ? plan.validate(value, context) : validateEntries(value, context);
+    }
+
+    if(failFast) {
+      context.exitFailFast();
+    }
+    return status;
+  }
+
+  @Override
+  public boolean test(K value) {
+    if(trackReferences) {
+      // nested schemas only share the visited instances through a context
+      return validate(value, ValidationContext.failFast()).isValid();
+    }
+    Plan plan = this.plan;
+    if(plan != null) {
+      return plan.test(value);
+    }
+    List<Map.Entry<String, Constraint<K>>> entries = entries();
+    for(int i = 0; i < entries.size(); i++) {
+      if(!entries.get(i).getValue().test(value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private ValidationStatus validateReference(K value, ValidationContext context) {
+    ViolationPath path = context.getPath();
+    Visit visit = (Visit) context.getVisit(this, value);
+    if(visit != null) {
+      // a cycle back to an instance still being validated, whose violations are reported there
+      if(visit.status == null) {
+        return ValidationStatus.VALID;
+      }
+      for(ConstraintViolation violation : visit.violations) {
+        context.report(violation.relocated(visit.path, path));
+      }
+      return visit.status;
+    }
+
+    visit = new Visit(path);
+    context.putVisit(this, value, visit);
+    int mark = context.defer();
+    ValidationStatus status;
+    try {
+      status = validateValue(value, context);
+      visit.violations = context.getDeferred(mark);
+    } finally {
+      context.commit(mark);
+    }
+    visit.status = status;
+    return status;
+  }
+
+  private ValidationStatus validateEntries(K value, ValidationContext context) {
+    return validateEntries(entries(), value, context);
+  }
+
+  private ValidationStatus validateEntries(List<Map.Entry<String, Constraint<K>>> entries, K value, ValidationContext context) {
+    ValidationStatus status = ValidationStatus.VALID;
+    for(int i = 0; i < entries.size(); i++) {
+      Map.Entry<String, Constraint<K>> entry = entries.get(i);
+      context.enterField(entry.getKey());
+      ValidationStatus entryStatus = entry.getValue().validateNested(value, context);
+      context.exit();
+      if(entryStatus != ValidationStatus.VALID) {
+        status = ValidationStatus.INVALID;
+        if(context.shouldStop()) {
+          break;
+        }
+      }
+    }
+    return status;
+  }
+
+  private ValidationStatus validateParallel(K value, ValidationContext context) {
+    List<List<Map.Entry<String, Constraint<K>>>> chunks = chunks();
+    if(chunks.size() < 2 || context.isTruncated()) {
+      return validateEntries(value, context);
+    }
+
+    List<List<ConstraintViolation>> violations = new ArrayList<>(chunks.size());
+    List<ValidationContext> forks = new ArrayList<>(chunks.size());
+    List<ForkJoinTask<ValidationStatus>> tasks = new ArrayList<>(chunks.size());
+    for(int i = 0; i < chunks.size(); i++) {
+      List<ConstraintViolation> chunkViolations = new ArrayList<>();
+      ValidationContext fork = context.fork(chunkViolations::add);
+      List<Map.Entry<String, Constraint<K>>> chunk = chunks.get(i);
+      Callable<ValidationStatus> task = () -> validateEntries(chunk, value, fork);
+      violations.add(chunkViolations);
+      forks.add(fork);
+      tasks.add(i == 0 ? ForkJoinTask.adapt(task) : ForkJoinTask.inForkJoinPool() ? ForkJoinTask.adapt(task).fork() : pool.submit(task));
+    }
+    tasks.get(0).invoke();
+
+    // merge in entry order, cutting off where a sequential validation would have stopped; a chunk
+    // that dropped violations spent the budget, so the chunks after it are not merged
+    ValidationStatus status = ValidationStatus.VALID;
+    for(int i = 0; i < tasks.size(); i++) {
+      if(status != ValidationStatus.VALID && context.shouldStop()) {
+        tasks.get(i).cancel(false);
+        continue;
+      }
+      ValidationStatus chunkStatus = tasks.get(i).join();
+      for(ConstraintViolation violation : violations.get(i)) {
+        context.report(violation);
+      }
+      context.join(forks.get(i));
+      if(chunkStatus != ValidationStatus.VALID) {
+        status = ValidationStatus.INVALID;
+      }
+    }
+    return status;
+  }
+
+  private List<List<Map.Entry<String, Constraint<K>>>> chunks() {
+    List<List<Map.Entry<String, Constraint<K>>>> snapshot = chunks;
+    if(snapshot == null) {
+      snapshot = new ArrayList<>();
+      List<Map.Entry<String, Constraint<K>>> chunk = new ArrayList<>();
+      int cost = 0;
+      for(Map.Entry<String, Constraint<K>> entry : entries()) {
+        chunk.add(entry);
+        cost += cost(entry.getValue(), Collections.newSetFromMap(new IdentityHashMap<>()));
+        if(cost >= minCost) {
+          snapshot.add(chunk);
+          chunk = new ArrayList<>();
+          cost = 0;
+        }
+      }
+      if(!chunk.isEmpty()) {
+        snapshot.add(chunk);
+      }
+      chunks = snapshot;
+    }
+    return snapshot;
+  }
+
+  // number of constraints in the tree, counting each nested schema once
+  private static int cost(Constraint<?> constraint, Set<Constraint<?>> visited) {
+    if(!(constraint instanceof CompositeConstraint) || !visited.add(constraint)) {
+      return 1;
+    }
+    int cost = 1;
+    for(Constraint<?> child : ((CompositeConstraint) constraint).getConstraints()) {
+      cost += cost(child, visited);
+    }
+    return cost;
+  }
+
+  boolean isFieldEntry(String name) {
+    return fieldEntries.contains(name);
+  }
+
+  List<Map.Entry<String, Constraint<K>>> entries() {
+    List<Map.Entry<String, Constraint<K>>> snapshot = entries;
+    if(snapshot == null) {
+      snapshot = new ArrayList<>(constraintMap.entrySet());
+      entries = snapshot;
+    }
+    return snapshot;
+  }
+
+  private void checkNotCompiled() {
+    if(plan != null) {
+      throw new IllegalStateException("Schema has been compiled and can no longer be modified");
+    }
+  }
+
+  private void compile(Set<Schema<?>> visiting) {
+    if(plan != null || !visiting.add(this)) {
+      return;
+    }
+    for(Constraint<K> constraint : constraintMap.values()) {
+      compileNested(constraint, visiting);
+    }
+
+    Plan plan = new Plan();
+    plan.addEntries(this, new String[0], null);
+    this.plan = plan.freeze();
+  }
+
+  private static void compileNested(Constraint<?> constraint, Set<Schema<?>> visiting) {
+    if(constraint instanceof Schema) {
+      ((Schema<?>) constraint).compile(visiting);
+    } else if(constraint instanceof CompositeConstraint) {
+      for(Constraint<?> child : ((CompositeConstraint) constraint).getConstraints()) {
+        compileNested(child, visiting);
+      }
+    }
   }
 
   public abstract <T> Function<K, T> fieldGetter(String name, Class<T> fieldType);
+
+  /**
+   * Whether a field checked as the given primitive type holds boxed numbers that may be null, rather
+   * than being read unboxed through {@link #intFieldGetter} and the like.
+   */
+  public boolean isBoxedField(String name, Class<?> primitive) {
+    return true;
+  }
+
+  public ToIntFunction<K> intFieldGetter(String name) {
+    Function<K, Number> getter = fieldGetter(name, Number.class);
+    return value -> getter.apply(value).intValue();
+  }
+
+  public ToLongFunction<K> longFieldGetter(String name) {
+    Function<K, Number> getter = fieldGetter(name, Number.class);
+    return value -> getter.apply(value).longValue();
+  }
+
+  public ToDoubleFunction<K> doubleFieldGetter(String name) {
+    Function<K, Number> getter = fieldGetter(name, Number.class);
+    return value -> getter.apply(value).doubleValue();
+  }
+
+  private static final class Visit {
+    private final ViolationPath path;
+    private ValidationStatus status;
+    private List<ConstraintViolation> violations;
+
+    private Visit(ViolationPath path) {
+      this.path = path;
+    }
+  }
+
+  /**
+   * Flat execution plan of a compiled schema: one slot per entry, with projections folded into the
+   * slot getters and nested schemas inlined as slots of their parent. A schema behind an
+   * {@code orElseBreak()} guard gets a slot for the guard, which skips the slots of the schema when
+   * it fails, as the {@code and} joining them would.
+   */
+  private static final class Plan {
+    private final ThreadLocal<ValidationContext[]> contexts = ThreadLocal.withInitial(() -> new ValidationContext[] {new ValidationContext()});
+
+    private List<String[]> pathList = new ArrayList<>();
+    private List<Function<Object, Object>> getterList = new ArrayList<>();
+    private List<Constraint<Object>> constraintList = new ArrayList<>();
+    private List<Integer> skipList = new ArrayList<>();
+
+    private String[][] paths;
+    private Function<Object, Object>[] getters;
+    private Constraint<Object>[] constraints;
+    // slots to skip after each slot fails
+    private int[] skips;
+
+    private void addEntries(Schema<?> schema, String[] path, Function<Object, Object> getter) {
+      for(Map.Entry<String, ? extends Constraint<?>> entry : schema.constraintMap.entrySet()) {
+        String[] entryPath = Arrays.copyOf(path, path.length + 1);
+        entryPath[path.length] = entry.getKey();
+        addSlot(entryPath, getter, entry.getValue());
+      }
+    }
+
+    private void addSlot(String[] path, Function<Object, Object> getter, Constraint<?> constraint) {
+      while(constraint instanceof ProjectionConstraint) {
+        ProjectionConstraint<Object, Object> projection = (ProjectionConstraint<Object, Object>) constraint;
+        getter = getter == null ? projection.getLens() : getter.andThen(projection.getLens());
+        constraint = projection.getConstraint();
+      }
+
+      if(inlinable(constraint)) {
+        addEntries((Schema<?>) constraint, path, getter);
+      } else if(constraint instanceof AndConstraint && ((AndConstraint<?>) constraint).getFirst() instanceof BreakConstraint
+        && inlinable(((AndConstraint<?>) constraint).getOther())) {
+        int guard = constraintList.size();
+        add(path, getter, ((AndConstraint<?>) constraint).getFirst());
+        addEntries((Schema<?>) ((AndConstraint<?>) constraint).getOther(), path, getter);
+        skipList.set(guard, constraintList.size() - guard - 1);
+      } else {
+        add(path, getter, constraint);
+      }
+    }
+
+    private static boolean inlinable(Constraint<?> constraint) {
+      if(!(constraint instanceof Schema)) {
+        return false;
+      }
+      Schema<?> nested = (Schema<?>) constraint;
+      return nested.plan != null && !nested.failFast && !nested.trackReferences && nested.adaptivePeriod == 0 && nested.pool == null;
+    }
+
+    private void add(String[] path, Function<Object, Object> getter, Constraint<?> constraint) {
+      pathList.add(path);
+      getterList.add(getter);
+      constraintList.add((Constraint<Object>) constraint);
+      skipList.add(0);
+    }
+
+    private Plan freeze() {
+      paths = pathList.toArray(new String[0][]);
+      getters = getterList.toArray(new Function[0]);
+      constraints = constraintList.toArray(new Constraint[0]);
+      skips = new int[skipList.size()];
+      for(int i = 0; i < skips.length; i++) {
+        skips[i] = skipList.get(i);
+      }
+      pathList = null;
+      getterList = null;
+      constraintList = null;
+      skipList = null;
+      return this;
+    }
+
+    private ValidationStatus validate(Object value, ValidationContext context) {
+      String[][] paths = this.paths;
+      Function<Object, Object>[] getters = this.getters;
+      Constraint<Object>[] constraints = this.constraints;
+      ValidationStatus status = ValidationStatus.VALID;
+      for(int i = 0; i < constraints.length; i++) {
+        String[] path = paths[i];
+        for(int j = 0; j < path.length; j++) {
+          context.enterField(path[j]);
+        }
+        Function<Object, Object> getter = getters[i];
+        ValidationStatus slotStatus = constraints[i].validateNested(getter == null ? value : getter.apply(value), context);
+        for(int j = 0; j < path.length; j++) {
+          context.exit();
+        }
+
+        if(slotStatus != ValidationStatus.VALID) {
+          status = ValidationStatus.INVALID;
+          if(context.shouldStop()) {
+            break;
+          }
+          i += skips[i];
+        }
+      }
+      return status;
+    }
+
+    private boolean test(Object value) {
+      Function<Object, Object>[] getters = this.getters;
+      Constraint<Object>[] constraints = this.constraints;
+      for(int i = 0; i < constraints.length; i++) {
+        Function<Object, Object> getter = getters[i];
+        if(!constraints[i].test(getter == null ? value : getter.apply(value))) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
 }
@@ -0,0 +1,66 @@
+package logicaltruth.validation.util;
+
+import java.lang.invoke.MethodHandle;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Reader of one field through a getter handle held in a static final field, which the JIT treats as
+ * a constant and inlines like a direct read. The class is never used as compiled:
+ * {@link LambdaMetafactoryHelper} defines a copy of it per field, each in its own class loader that
+ * supplies the handle.
+ */
+final class ConstantFieldReader implements Function<Object, Object>, ToIntFunction<Object>, ToLongFunction<Object>, ToDoubleFunction<Object> {
+  // (Object) -> the type the field is read as; only the method matching that type is ever called
+  @SuppressWarnings("unchecked")
+  private static final MethodHandle GETTER = ((Supplier<MethodHandle>) ConstantFieldReader.class.getClassLoader()).get();
+
+  @Override
+  public Object apply(Object bean) {
+    try {
+      return (Object) GETTER.invokeExact(bean);
+    } catch(Throwable throwable) {
+      throw rethrow(throwable);
+    }
+  }
+
+  @Override
+  public int applyAsInt(Object bean) {
+    try {
+      return (int) GETTER.invokeExact(bean);
+    } catch(Throwable throwable) {
+      throw rethrow(throwable);
+    }
+  }
+
+  @Override
+  public long applyAsLong(Object bean) {
+    try {
+      return (long) GETTER.invokeExact(bean);
+    } catch(Throwable throwable) {
+      throw rethrow(throwable);
+    }
+  }
+
+  @Override
+  public double applyAsDouble(Object bean) {
+    try {
+      return (double) GETTER.invokeExact(bean);
+    } catch(Throwable throwable) {
+      throw rethrow(throwable);
+    }
+  }
+
+  private static RuntimeException rethrow(Throwable throwable) {
+    if(throwable instanceof RuntimeException) {
+      return (RuntimeException) throwable;
+    }
+    if(throwable instanceof Error) {
+      throw (Error) throwable;
+    }
+    return new IllegalStateException(throwable);
+  }
+}
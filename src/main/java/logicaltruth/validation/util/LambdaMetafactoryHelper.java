@@ -1,24 +1,330 @@
 package logicaltruth.validation.util;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.invoke.*;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 public class LambdaMetafactoryHelper {
+  // accessors generated so far, per bean class and method, property or field name. An accessor
+  // references its bean class, and a ClassValue keeps its values as long as the class lives, so
+  // they are held softly to let the class and its loader be collected once no schema uses them.
+  private static final ClassValue<ConcurrentMap<String, SoftReference<Accessor>>> GETTERS = new AccessorCache();
+  private static final ClassValue<ConcurrentMap<String, SoftReference<Accessor>>> FIELDS = new AccessorCache();
+  private static final ClassValue<ConcurrentMap<String, SoftReference<Accessor>>> PROPERTIES = new AccessorCache();
+
   public static <B, F> Function<B, F> getGetterLambda(String methodName, Class<B> beanClass, Class<F> fieldClass) {
+    Accessor accessor = cached(GETTERS, beanClass, methodName, name -> {
+      try {
+        return methodAccessor(beanClass.getMethod(name));
+      } catch(NoSuchMethodException e) {
+        throw new IllegalArgumentException("No public method " + name + "() on " + beanClass.getName(), e);
+      }
+    });
+    return accessor.as(fieldClass);
+  }
+
+  /**
+   * Reader of a bean property, resolved in order from a {@code getX()} method, an {@code isX()}
+   * method returning a boolean, a record-style {@code x()} method and a public field {@code x}.
+   * Accessors are generated once per bean class and property.
+   */
+  public static <B, F> Function<B, F> getPropertyLambda(String property, Class<B> beanClass, Class<F> fieldClass) {
+    return cached(PROPERTIES, beanClass, property, name -> {
+      Member member = findProperty(name, beanClass);
+      return member instanceof Method ? methodAccessor((Method) member) : fieldAccessor((Field) member);
+    }).as(fieldClass);
+  }
+
+  /**
+   * Reader of a field declared by the bean class or one of its superclasses, whatever its
+   * visibility, bypassing any getter. Private fields need the runtime to allow reflective access.
+   */
+  public static <B, F> Function<B, F> getFieldLambda(String fieldName, Class<B> beanClass, Class<F> fieldClass) {
+    return cached(FIELDS, beanClass, fieldName, name -> fieldAccessor(findField(name, beanClass))).as(fieldClass);
+  }
+
+  /**
+   * Unboxed reader of a property with a primitive type that widens to {@code int}, resolved like
+   * {@link #getPropertyLambda}.
+   */
+  public static <B> ToIntFunction<B> getIntPropertyLambda(String property, Class<B> beanClass) {
+    return (ToIntFunction<B>) primitiveProperty(property, beanClass, int.class);
+  }
+
+  public static <B> ToLongFunction<B> getLongPropertyLambda(String property, Class<B> beanClass) {
+    return (ToLongFunction<B>) primitiveProperty(property, beanClass, long.class);
+  }
+
+  public static <B> ToDoubleFunction<B> getDoublePropertyLambda(String property, Class<B> beanClass) {
+    return (ToDoubleFunction<B>) primitiveProperty(property, beanClass, double.class);
+  }
+
+  public static <B> ToIntFunction<B> getIntFieldLambda(String fieldName, Class<B> beanClass) {
+    return (ToIntFunction<B>) primitiveField(fieldName, beanClass, int.class);
+  }
+
+  public static <B> ToLongFunction<B> getLongFieldLambda(String fieldName, Class<B> beanClass) {
+    return (ToLongFunction<B>) primitiveField(fieldName, beanClass, long.class);
+  }
+
+  public static <B> ToDoubleFunction<B> getDoubleFieldLambda(String fieldName, Class<B> beanClass) {
+    return (ToDoubleFunction<B>) primitiveField(fieldName, beanClass, double.class);
+  }
+
+  /**
+   * Whether the property read as the given primitive type has a wrapper type such as {@code Integer},
+   * so it may be null. Throws IllegalArgumentException when it does not widen to that type.
+   */
+  public static boolean isBoxedProperty(String property, Class<?> beanClass, Class<?> primitive) {
+    Member member = findProperty(property, beanClass);
+    return isBoxed(member instanceof Method ? ((Method) member).getReturnType() : ((Field) member).getType(), primitive, member);
+  }
+
+  public static boolean isBoxedField(String fieldName, Class<?> beanClass, Class<?> primitive) {
+    Field field = findField(fieldName, beanClass);
+    return isBoxed(field.getType(), primitive, field);
+  }
+
+  private static boolean isBoxed(Class<?> type, Class<?> primitive, Member member) {
+    checkWidens(type, primitive, member);
+    return !type.isPrimitive();
+  }
+
+  private static Object primitiveProperty(String property, Class<?> beanClass, Class<?> primitive) {
+    return cached(PROPERTIES, beanClass, property + ":" + primitive, key -> {
+      Member member = findProperty(property, beanClass);
+      return member instanceof Method
+        ? primitiveMethodAccessor((Method) member, primitive)
+        : primitiveFieldAccessor((Field) member, primitive);
+    }).function;
+  }
+
+  private static Object primitiveField(String fieldName, Class<?> beanClass, Class<?> primitive) {
+    return cached(FIELDS, beanClass, fieldName + ":" + primitive,
+      key -> primitiveFieldAccessor(findField(fieldName, beanClass), primitive)).function;
+  }
+
+  // two threads may both generate a missing accessor; either result is equivalent
+  private static Accessor cached(ClassValue<ConcurrentMap<String, SoftReference<Accessor>>> cache, Class<?> beanClass,
+                                 String key, Function<String, Accessor> factory) {
+    ConcurrentMap<String, SoftReference<Accessor>> accessors = cache.get(beanClass);
+    SoftReference<Accessor> reference = accessors.get(key);
+    Accessor accessor = reference == null ? null : reference.get();
+    if(accessor == null) {
+      accessor = factory.apply(key);
+      accessors.put(key, new SoftReference<>(accessor));
+    }
+    return accessor;
+  }
+
+  private static Member findProperty(String property, Class<?> beanClass) {
+    String properName = property.substring(0, 1).toUpperCase() + property.substring(1);
+    Method method = findMethod(beanClass, "get" + properName);
+    if(method == null) {
+      method = findMethod(beanClass, "is" + properName);
+      if(method != null && method.getReturnType() != boolean.class && method.getReturnType() != Boolean.class) {
+        method = null;
+      }
+    }
+    if(method == null) {
+      method = findMethod(beanClass, property);
+    }
+    if(method != null) {
+      return method;
+    }
+
+    try {
+      Field field = beanClass.getField(property);
+      if(!Modifier.isStatic(field.getModifiers())) {
+        return field;
+      }
+    } catch(NoSuchFieldException e) {
+      // reported below
+    }
+    throw new IllegalArgumentException("No readable property " + property + " on " + beanClass.getName());
+  }
+
+  private static Method findMethod(Class<?> beanClass, String name) {
+    try {
+      Method method = beanClass.getMethod(name);
+      return method.getReturnType() == void.class || Modifier.isStatic(method.getModifiers()) ? null : method;
+    } catch(NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  private static Field findField(String name, Class<?> beanClass) {
+    for(Class<?> type = beanClass; type != null; type = type.getSuperclass()) {
+      try {
+        Field field = type.getDeclaredField(name);
+        if(!Modifier.isStatic(field.getModifiers())) {
+          field.setAccessible(true);
+          return field;
+        }
+      } catch(NoSuchFieldException e) {
+        // keep looking in the superclass
+      } catch(RuntimeException e) {
+        throw new IllegalArgumentException("Field " + name + " of " + type.getName() + " is not accessible", e);
+      }
+    }
+    throw new IllegalArgumentException("No field " + name + " on " + beanClass.getName());
+  }
+
+  private static Accessor methodAccessor(Method method) {
+    return new Accessor(metafactory(method, Function.class, "apply", MethodType.methodType(Object.class, Object.class), null),
+      method.getReturnType(), method.toString());
+  }
+
+  private static Accessor primitiveMethodAccessor(Method method, Class<?> primitive) {
+    checkWidens(method.getReturnType(), primitive, method);
+    return new Accessor(metafactory(method, functionType(primitive), "applyAs" + functionName(primitive),
+      MethodType.methodType(primitive, Object.class), primitive), primitive, method.toString());
+  }
+
+  private static Object metafactory(Method method, Class<?> functionType, String name, MethodType samType, Class<?> returnType) {
     try {
       MethodHandles.Lookup caller = MethodHandles.lookup();
-      MethodType getter = MethodType.methodType(fieldClass);
-      MethodHandle target = caller.findVirtual(beanClass, methodName, getter);
+      MethodHandle target = caller.unreflect(method);
       MethodType func = target.type();
       CallSite site = LambdaMetafactory.metafactory(caller,
-        "apply",
-        MethodType.methodType(Function.class),
-        func.generic(), target, func);
+        name,
+        MethodType.methodType(functionType),
+        samType, target, returnType == null ? func.wrap().changeParameterType(0, func.parameterType(0)) : func.changeReturnType(returnType));
 
       MethodHandle factory = site.getTarget();
-      return (Function<B, F>) factory.invoke();
+      return factory.invoke();
     } catch(Throwable throwable) {
-      throw new RuntimeException("Unable to build lambda fieldGetter");
+      throw new IllegalArgumentException("Unable to build lambda fieldGetter for " + method, throwable);
+    }
+  }
+
+  // a getter handle honours volatile and final fields like a plain read; one is made per field
+  private static Accessor fieldAccessor(Field field) {
+    return new Accessor(constantReader(getterHandle(field, Object.class), field), field.getType(), field.toString());
+  }
+
+  private static Accessor primitiveFieldAccessor(Field field, Class<?> primitive) {
+    checkWidens(field.getType(), primitive, field);
+    return new Accessor(constantReader(getterHandle(field, primitive), field), primitive, field.toString());
+  }
+
+  // a handle captured by a lambda is not a constant to the JIT and is invoked out of line on every
+  // read, while one in a static final field is inlined; a copy of ConstantFieldReader holds it so
+  private static Object constantReader(MethodHandle getter, Field field) {
+    try {
+      Class<?> reader = new FieldReaderLoader(getter).define();
+      Constructor<?> constructor = reader.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      return constructor.newInstance();
+    } catch(ReflectiveOperationException | IOException | RuntimeException e) {
+      throw new IllegalArgumentException("Unable to build a reader for " + field, e);
+    }
+  }
+
+  // (Object) -> type, boxing or widening the field value as needed
+  private static MethodHandle getterHandle(Field field, Class<?> type) {
+    try {
+      return MethodHandles.lookup().unreflectGetter(field).asType(MethodType.methodType(type, Object.class));
+    } catch(IllegalAccessException e) {
+      throw new IllegalArgumentException("Field " + field + " is not accessible", e);
+    }
+  }
+
+  private static Class<?> functionType(Class<?> primitive) {
+    return primitive == int.class ? ToIntFunction.class : primitive == long.class ? ToLongFunction.class : ToDoubleFunction.class;
+  }
+
+  private static String functionName(Class<?> primitive) {
+    return primitive == int.class ? "Int" : primitive == long.class ? "Long" : "Double";
+  }
+
+  // primitive widening as in Java assignments, e.g. an int getter read as long, after unboxing a
+  // numeric wrapper; the readers unbox with a NullPointerException on null
+  private static void checkWidens(Class<?> boxed, Class<?> primitive, Member member) {
+    Class<?> type = Number.class.isAssignableFrom(boxed) ? MethodType.methodType(boxed).unwrap().returnType() : boxed;
+    boolean integral = type == byte.class || type == short.class || type == char.class || type == int.class;
+    boolean widens = type == primitive || integral
+      || (type == long.class || type == float.class) && primitive == double.class;
+    if(!widens) {
+      throw new IllegalArgumentException(member + " does not return " + primitive.getName());
+    }
+  }
+
+  // supplies the getter to the static initializer of the one copy of ConstantFieldReader it defines
+  private static final class FieldReaderLoader extends ClassLoader implements Supplier<MethodHandle> {
+    private static volatile byte[] readerClass;
+    private final MethodHandle getter;
+
+    private FieldReaderLoader(MethodHandle getter) {
+      super(LambdaMetafactoryHelper.class.getClassLoader());
+      this.getter = getter;
+    }
+
+    @Override
+    public MethodHandle get() {
+      return getter;
+    }
+
+    private Class<?> define() throws IOException {
+      byte[] bytes = readerClass;
+      if(bytes == null) {
+        readerClass = bytes = readResource(ConstantFieldReader.class.getSimpleName() + ".class");
+      }
+      return defineClass(ConstantFieldReader.class.getName(), bytes, 0, bytes.length);
+    }
+
+    private static byte[] readResource(String name) throws IOException {
+      try(InputStream in = ConstantFieldReader.class.getResourceAsStream(name)) {
+        if(in == null) {
+          throw new IOException("Missing class file " + name);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for(int read; (read = in.read(buffer)) != -1; ) {
+          out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+      }
+    }
+  }
+
+  private static final class AccessorCache extends ClassValue<ConcurrentMap<String, SoftReference<Accessor>>> {
+    @Override
+    protected ConcurrentMap<String, SoftReference<Accessor>> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  }
+
+  private static final class Accessor {
+    private final Object function;
+    private final Class<?> type;
+    private final String description;
+
+    private Accessor(Object function, Class<?> type, String description) {
+      this.function = function;
+      this.type = MethodType.methodType(type).wrap().returnType();
+      this.description = description;
+    }
+
+    private <B, F> Function<B, F> as(Class<F> fieldClass) {
+      if(!MethodType.methodType(fieldClass).wrap().returnType().isAssignableFrom(type)) {
+        throw new IllegalArgumentException(description + " does not return " + fieldClass.getName());
+      }
+      return (Function<B, F>) function;
     }
   }
 }
@@ -1,13 +1,26 @@
 package logicaltruth.validation;
 
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ConstraintViolation;
+import logicaltruth.validation.constraint.ValidationContext;
 import logicaltruth.validation.constraint.ValidationResult;
+import logicaltruth.validation.constraint.ValidationStatus;
+import logicaltruth.validation.constraint.ViolationCode;
+import logicaltruth.validation.constraint.ViolationPath;
+import logicaltruth.validation.constraint.impl.ConstraintOptimizer;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
 import static logicaltruth.validation.constraint.common.StringConstraints.*;
 import static logicaltruth.validation.constraint.impl.StandardConstraint.withPredicate;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class BasicValidationTests {
 
@@ -105,4 +118,103 @@ public class BasicValidationTests {
     assertEquals(result.getValue(), "xb");
     assertThat(result.getConstraintViolations(), hasSize(1));
   }
+
+  @Test
+  public void string_constraint_valid_nested_status() {
+    ValidationContext context = new ValidationContext();
+    List<ConstraintViolation> violations = new ArrayList<>();
+    context.reset(violations::add);
+
+    ValidationStatus status = stringRequired.orElseBreak()
+      .and(maxLength(2).or(minLength(4)))
+      .validateNested("abcd", context);
+
+    assertThat(status, is(ValidationStatus.VALID));
+    assertThat(violations, hasSize(0));
+  }
+
+  @Test
+  public void string_constraint_sink() {
+    Constraint<String> constraint = stringRequired.orElseBreak()
+      .and(maxLength(2).or(minLength(4)))
+      .and(withPredicate(s -> s.contains("a"), "Oops, no 'a'"));
+    ValidationContext context = new ValidationContext();
+    List<ConstraintViolation> violations = new ArrayList<>();
+
+    assertEquals(constraint.validate("xbc", context, violations::add), false);
+    assertThat(violations, hasSize(3));
+
+    violations.clear();
+    assertEquals(constraint.validate("xbcd", context, violations::add), false);
+    assertThat(violations, hasSize(1));
+    assertEquals(violations.get(0).getMessage(), "Oops, no 'a'");
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void shared_valid_result_immutable() {
+    ValidationResult.valid().setBreak(true);
+  }
+
+  @Test
+  public void string_constraint_max_violations_or() {
+    ValidationResult result = stringRequired.orElseBreak()
+      .and(maxLength(2).or(minLength(4)))
+      .validate("abcd", ValidationContext.maxViolations(1));
+
+    assertEquals(result.isValid(), true);
+    assertEquals(result.isTruncated(), false);
+  }
+
+  @Test
+  public void string_constraint_test_matches_validate() {
+    String[] values = {null, "a", "ab", "abc", "abcd", "xb", "xbcd"};
+    for(String value : values) {
+      assertEquals(stringRequired.orElseBreak()
+        .and(maxLength(2).or(minLength(4)))
+        .and(withPredicate(s -> s.contains("b"), "Oops, no 'b'"))
+        .test(value), stringRequired.orElseBreak()
+        .and(maxLength(2).or(minLength(4)))
+        .and(withPredicate(s -> s.contains("b"), "Oops, no 'b'"))
+        .validate(value).isValid());
+    }
+  }
+
+  @Test
+  public void string_constraint_test_matches_validate_or_break() {
+    Constraint<String> constraint = minLength(5).orElseBreak().or(maxLength(2));
+    Constraint<String> chain = minLength(5).orElseBreak().or(maxLength(2)).or(contains("a"));
+    String[] values = {"a", "abcdef", "abc"};
+    for(String value : values) {
+      assertEquals(constraint.test(value), constraint.validate(value).isValid());
+      assertEquals(ConstraintOptimizer.optimize(chain).test(value), chain.validate(value).isValid());
+    }
+  }
+
+  @Test
+  public void string_constraint_violation_code() {
+    ValidationResult result = stringRequired.orElseBreak().and(rangeLength(2, 5)).validate("a");
+
+    assertThat(result.getConstraintViolations(), hasSize(1));
+    assertEquals(result.getConstraintViolations().get(0).getCode(), ViolationCode.MIN_LENGTH);
+    assertEquals(result.getConstraintViolations().get(0).getArguments()[0], 2);
+    assertEquals(result.getConstraintViolations().get(0).getMessage(Locale.ENGLISH), "must have at least 2 chars");
+    assertEquals(result.getConstraintViolations().get(0),
+      stringRequired.orElseBreak().and(rangeLength(2, 5)).validate("b").getConstraintViolations().get(0));
+  }
+
+  @Test
+  public void violation_messages_per_locale() {
+    ViolationCode total = ViolationCode.of("TOTAL", "must total at most %,.1f");
+    ConstraintViolation violation = new ConstraintViolation(total, new Object[] {1234.5}, ViolationPath.ROOT);
+
+    String english = violation.getMessage(Locale.ENGLISH);
+    String german = violation.getMessage(Locale.GERMAN);
+
+    assertEquals(english, "must total at most 1,234.5");
+    assertEquals(german, "must total at most 1.234,5");
+    // alternating locales reads the cached messages instead of rendering again
+    assertSame(violation.getMessage(Locale.ENGLISH), english);
+    assertSame(violation.getMessage(Locale.GERMAN), german);
+    assertSame(violation.rebased(ViolationPath.ROOT.field("total")).getMessage(Locale.GERMAN), german);
+  }
 }
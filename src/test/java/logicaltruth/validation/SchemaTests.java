@@ -1,17 +1,63 @@
 package logicaltruth.validation;
 
+import logicaltruth.validation.constraint.AsyncValidation;
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.ConstraintViolation;
+import logicaltruth.validation.constraint.ValidationContext;
 import logicaltruth.validation.constraint.ValidationResult;
+import logicaltruth.validation.constraint.ViolationCode;
+import logicaltruth.validation.constraint.ViolationPath;
+import logicaltruth.validation.constraint.common.DoubleConstraints;
+import logicaltruth.validation.constraint.common.IntConstraints;
+import logicaltruth.validation.constraint.common.LongConstraints;
 import logicaltruth.validation.constraint.common.Value;
+import logicaltruth.validation.constraint.impl.AsyncConstraint;
+import logicaltruth.validation.constraint.impl.BatchConstraint;
+import logicaltruth.validation.constraint.impl.ConstraintOptimizer;
+import logicaltruth.validation.constraint.impl.FusedChecksConstraint;
+import logicaltruth.validation.constraint.impl.MemoizingConstraint;
+import logicaltruth.validation.constraint.impl.StandardConstraint;
 import logicaltruth.validation.custom.Address;
 import logicaltruth.validation.custom.Customer;
+import logicaltruth.validation.reactive.ValidationProcessor;
 import logicaltruth.validation.schema.BeanSchema;
+import logicaltruth.validation.schema.FieldMask;
 import logicaltruth.validation.schema.MapSchema;
+import logicaltruth.validation.schema.NdjsonValidator;
 import logicaltruth.validation.schema.Schema;
+import logicaltruth.validation.util.LambdaMetafactoryHelper;
 import org.junit.Test;
-
+import org.reactivestreams.FlowAdapters;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static logicaltruth.validation.constraint.common.CollectionValidators.listConstraint;
 import static logicaltruth.validation.constraint.common.CollectionValidators.mapConstraint;
@@ -19,11 +65,15 @@ import static logicaltruth.validation.constraint.common.IntegerConstraints.*;
 import static logicaltruth.validation.constraint.common.StringConstraints.*;
 import static logicaltruth.validation.constraint.common.Value.mapRequired;
 import static logicaltruth.validation.dsl.ValidationHelper.field;
+import static logicaltruth.validation.dsl.ValidationHelper.listField;
 import static logicaltruth.validation.dsl.ValidationHelper.schema;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 public class SchemaTests {
 
@@ -52,6 +102,138 @@ public class SchemaTests {
     assertThat(result.getConstraintViolations(), hasSize(0));
   }
 
+  @Test
+  public void bean_schema_property_kinds() {
+    Schema<Address> addressSchema = new BeanSchema<>(Address.class)
+      .field("zip", String.class, stringRequired.and(rangeLength(5, 6)))
+      .field("verified", Boolean.class, Value.<Boolean>required().and(StandardConstraint.withPredicate(v -> v, "must be verified")))
+      .field("country", String.class, stringRequired);
+
+    Address address = new Address();
+    address.zip = "123";
+
+    ValidationResult result = addressSchema.validate(address);
+
+    assertThat(result.getConstraintViolations(), hasSize(2));
+    assertEquals(result.getConstraintViolations().get(0).getContext(), ".verified");
+    assertEquals(result.getConstraintViolations().get(1).getContext(), ".zip");
+    assertThat(LambdaMetafactoryHelper.getPropertyLambda("zip", Address.class, String.class),
+      sameInstance(LambdaMetafactoryHelper.getPropertyLambda("zip", Address.class, String.class)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void bean_schema_unknown_property() {
+    new BeanSchema<>(Address.class).field("town", String.class, stringRequired);
+  }
+
+  @Test
+  public void bean_schema_field_access() {
+    Schema<Address> addressSchema = new BeanSchema<>(Address.class, BeanSchema.Access.FIELD)
+      .field("street", String.class, stringRequired.and(maxLength(10)))
+      .field("verified", Boolean.class, Value.<Boolean>required().and(StandardConstraint.withPredicate(v -> v, "must be verified")));
+
+    Address address = new Address();
+    address.setStreet("0123456789x");
+    address.setVerified(true);
+
+    ValidationResult result = addressSchema.validate(address);
+
+    assertThat(result.getConstraintViolations(), hasSize(1));
+    assertEquals(result.getConstraintViolations().get(0).getContext(), ".street");
+
+    // each field gets a reader of its own
+    address.setNumber(7);
+    assertEquals(LambdaMetafactoryHelper.getFieldLambda("street", Address.class, String.class).apply(address), "0123456789x");
+    assertEquals(LambdaMetafactoryHelper.getFieldLambda("verified", Address.class, Boolean.class).apply(address), true);
+    assertEquals(LambdaMetafactoryHelper.getDoubleFieldLambda("number", Address.class).applyAsDouble(address), 7.0, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void bean_schema_field_access_no_field() {
+    new BeanSchema<>(Address.class, BeanSchema.Access.FIELD).field("country", String.class, stringRequired);
+  }
+
+  @Test
+  public void bean_schema_primitive_fields() {
+    Address address = new Address();
+    address.setNumber(120);
+
+    for(BeanSchema.Access access : BeanSchema.Access.values()) {
+      Schema<Address> addressSchema = new BeanSchema<>(Address.class, access)
+        .intField("number", IntConstraints.intRange(1, 99));
+
+      ValidationResult result = addressSchema.validate(address);
+
+      assertThat(result.getConstraintViolations(), hasSize(1));
+      assertEquals(result.getConstraintViolations().get(0).getCode(), ViolationCode.MAX);
+      assertEquals(result.getConstraintViolations().get(0).getMessage(), "must be at most 99");
+      assertEquals(new BeanSchema<>(Address.class, access).longField("number", LongConstraints.longGreaterThan(100)).test(address), true);
+    }
+  }
+
+  @Test
+  public void bean_schema_boxed_primitive_fields() {
+    Customer customer = new Customer();
+    customer.setAge(15);
+
+    for(BeanSchema.Access access : BeanSchema.Access.values()) {
+      Schema<Customer> customerSchema = new BeanSchema<>(Customer.class, access)
+        .intField("age", IntConstraints.intMin(18));
+
+      ValidationResult result = customerSchema.validate(customer);
+
+      assertThat(result.getConstraintViolations(), hasSize(1));
+      assertEquals(result.getConstraintViolations().get(0).getCode(), ViolationCode.MIN);
+      assertEquals(new BeanSchema<>(Customer.class, access).longField("age", LongConstraints.longGreaterThan(10)).test(customer), true);
+      assertEquals(new BeanSchema<>(Customer.class, access).intFieldGetter("age").applyAsInt(customer), 15);
+    }
+
+    customer.setAge(null);
+    for(BeanSchema.Access access : BeanSchema.Access.values()) {
+      Schema<Customer> customerSchema = new BeanSchema<>(Customer.class, access)
+        .doubleField("age", DoubleConstraints.doubleRange(0, 150));
+
+      ValidationResult result = customerSchema.validate(customer);
+
+      assertThat(result.getConstraintViolations(), hasSize(1));
+      assertEquals(result.getConstraintViolations().get(0).getCode(), ViolationCode.NOT_NULL);
+      assertEquals(result.getConstraintViolations().get(0).getContext(), ".age");
+      assertEquals(customerSchema.test(customer), false);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void bean_schema_primitive_field_not_numeric() {
+    new BeanSchema<>(Customer.class).intField("name", IntConstraints.intMin(1));
+  }
+
+  @Test
+  public void map_schema_primitive_fields() {
+    Schema<Map> mapSchema = new MapSchema()
+      .doubleField("ratio", DoubleConstraints.doubleRange(0, 1))
+      .intField("count", IntConstraints.intMin(1));
+
+    Map value = new HashMap() {{
+      put("ratio", 1.5);
+      put("count", 3);
+    }};
+
+    ValidationResult result = mapSchema.validate(value);
+
+    assertThat(result.getConstraintViolations(), hasSize(1));
+    assertEquals(result.getConstraintViolations().get(0).getContext(), ".ratio");
+    assertEquals(mapSchema.test(value), false);
+
+    value.put("ratio", 0.5);
+    value.remove("count");
+    result = mapSchema.validate(value);
+
+    assertThat(result.getConstraintViolations(), hasSize(1));
+    assertEquals(result.getConstraintViolations().get(0).getContext(), ".count");
+    assertEquals(result.getConstraintViolations().get(0).getCode(), ViolationCode.NOT_NULL);
+    assertEquals(mapSchema.test(value), false);
+  }
+
   @Test
   public void bean_schema_nested_invalid() {
     Schema<Address> addressSchema = new BeanSchema<>(Address.class)
@@ -392,4 +574,1112 @@ public class SchemaTests {
     assertEquals(result.getConstraintViolations().get(1).getContext(), ".someList[3]");
     assertEquals(result.getConstraintViolations().get(2).getContext(), ".someMap[b]");
   }
+
+  @Test
+  public void schema_violation_paths_share_prefix() {
+    Schema<Map> addressSchema = new MapSchema()
+      .field("street", String.class, stringRequired.and(maxLength(3)))
+      .field("zip", String.class, stringRequired);
+
+    Schema<Map> customerSchema = new MapSchema()
+      .field("address", Map.class, Value.<Map>required().orElseBreak().and(addressSchema));
+
+    Map customer = new HashMap() {{
+      put("address", new HashMap() {{
+        put("street", "0123");
+      }});
+    }};
+
+    ValidationResult result = customerSchema.validate(customer);
+
+    assertThat(result.getConstraintViolations(), hasSize(2));
+    assertEquals(result.getConstraintViolations().get(0).getContext(), ".address.street");
+    assertEquals(result.getConstraintViolations().get(1).getContext(), ".address.zip");
+    assertThat(result.getConstraintViolations().get(0).getPath().getParent(),
+      sameInstance(result.getConstraintViolations().get(1).getPath().getParent()));
+  }
+
+  @Test
+  public void schema_fail_fast_per_call() {
+    Schema<Map> customerSchema = new MapSchema()
+      .field("name", String.class, stringRequired.and(rangeLength(2, 5)))
+      .field("age", Integer.class, integerRequired.orElseBreak().and(greaterThan(18)))
+      .listField("someList", Integer.class, Value.<Integer>listRequired().orElseBreak().and(listConstraint(max(5))));
+
+    Map customer = new HashMap() {{
+      put("name", "abcdef");
+      put("age", 15);
+      put("someList", Arrays.asList(7, 8, 9));
+    }};
+
+    ValidationResult result = customerSchema.validate(customer, ValidationContext.failFast());
+
+    assertEquals(result.isValid(), false);
+    assertThat(result.getValue(), is(customer));
+    assertThat(result.getConstraintViolations(), hasSize(1));
+    assertEquals(result.getConstraintViolations().get(0).getContext(), ".age");
+
+    result = customerSchema.validate(customer);
+    assertThat(result.getConstraintViolations(), hasSize(5));
+  }
+
+  @Test
+  public void schema_fail_fast_per_schema() {
+    Schema<Map> customerSchema = new MapSchema()
+      .listField("someList", Integer.class, Value.<Integer>listRequired().orElseBreak().and(listConstraint(max(5))))
+      .failFast();
+
+    Map customer = new HashMap() {{
+      put("someList", Arrays.asList(1, 7, 8, 9));
+    }};
+
+    ValidationResult result = customerSchema.validate(customer);
+
+    assertEquals(result.isValid(), false);
+    assertThat(result.getConstraintViolations(), hasSize(1));
+    assertEquals(result.getConstraintViolations().get(0).getContext(), ".someList[1]");
+  }
+
+  @Test
+  public void schema_max_violations_truncated() {
+    Schema<Map> customerSchema = new MapSchema()
+      .field("name", String.class, stringRequired.and(rangeLength(2, 5)))
+      .listField("someList", Integer.class, Value.<Integer>listRequired().orElseBreak().and(listConstraint(max(5))));
+
+    Map customer = new HashMap() {{
+      put("name", "abcdef");
+      put("someList", Arrays.asList(1, 7, 8, 9, 10));
+    }};
+
+    ValidationResult result = customerSchema.validate(customer, ValidationContext.maxViolations(3));
+
+    assertEquals(result.isValid(), false);
+    assertEquals(result.isTruncated(), true);
+    assertThat(result.getConstraintViolations(), hasSize(3));
+    assertEquals(result.getConstraintViolations().get(0).getContext(), ".name");
+    assertEquals(result.getConstraintViolations().get(1).getContext(), ".someList[1]");
+    assertEquals(result.getConstraintViolations().get(2).getContext(), ".someList[2]");
+
+    result = customerSchema.validate(customer, ValidationContext.maxViolations(10));
+    assertEquals(result.isTruncated(), false);
+    assertThat(result.getConstraintViolations(), hasSize(5));
+  }
+
+  @Test
+  public void schema_max_violations_exactly_reached() {
+    Schema<Map> customerSchema = new MapSchema()
+      .field("name", String.class, stringRequired.and(rangeLength(2, 5)))
+      .listField("someList", Integer.class, Value.<Integer>listRequired().orElseBreak().and(listConstraint(max(5))));
+
+    Map customer = new HashMap() {{
+      put("name", "abcdef");
+      put("someList", Arrays.asList(1, 7, 8, 9, 10));
+    }};
+
+    ValidationResult result = customerSchema.validate(customer, ValidationContext.maxViolations(5));
+    assertEquals(result.isTruncated(), false);
+    assertThat(result.getConstraintViolations(), hasSize(5));
+
+    List<ConstraintViolation> streamed = new ArrayList<>();
+    ValidationContext context = ValidationContext.maxViolations(4);
+    assertEquals(customerSchema.validate(customer, context, streamed::add), false);
+    assertEquals(context.isTruncated(), true);
+    assertThat(streamed, hasSize(4));
+  }
+
+  @Test
+  public void schema_test_nested() {
+    Schema<Address> addressSchema = new BeanSchema<>(Address.class)
+      .field("street", String.class, stringRequired.and(maxLength(10)));
+
+    Schema<Customer> customerSchema = new BeanSchema<>(Customer.class)
+      .field("name", String.class, stringRequired.and(rangeLength(2, 5)))
+      .field("age", Integer.class, integerRequired.orElseBreak().and(greaterThan(18)))
+      .listField("someList", Integer.class, Value.<Integer>listRequired().orElseBreak().and(listConstraint(max(5))))
+      .field("address", Address.class, Value.<Address>required().orElseBreak().and(addressSchema));
+
+    Address address = new Address();
+    address.setStreet("0123456789");
+
+    Customer customer = new Customer();
+    customer.setName("abcde");
+    customer.setAge(25);
+    customer.setSomeList(Arrays.asList(1, 2, 3));
+    customer.setAddress(address);
+
+    assertEquals(customerSchema.test(customer), true);
+
+    address.setStreet("0123456789x");
+    assertEquals(customerSchema.test(customer), false);
+
+    address.setStreet("0123");
+    customer.setSomeList(Arrays.asList(1, 7));
+    assertEquals(customerSchema.test(customer), false);
+  }
+
+  @Test
+  public void schema_compiled_identical() {
+    Schema<Map> mapSchema = schema(
+      field("name", String.class, stringRequired.and(rangeLength(2, 5))),
+      field("nested1", Map.class,
+        schema(
+          field("inner1", String.class, stringRequired.and(contains("x"))),
+          field("nested2", Map.class,
+            schema(
+              field("inner2", String.class, stringRequired.and(contains("y")))
+            )
+          )
+        )
+      ),
+      field("address", Map.class, Value.<Map>required().orElseBreak().and(schema(
+        field("street", String.class, stringRequired.and(maxLength(10)))
+      )))
+    );
+
+    Map value = new HashMap() {{
+      put("name", "123456");
+      put("nested1", new HashMap() {{
+        put("inner1", "za");
+        put("nested2", new HashMap() {{
+          put("inner2", "zb");
+        }});
+      }});
+      put("address", new HashMap() {{
+        put("street", "0123456789x");
+      }});
+    }};
+
+    ValidationResult expected = mapSchema.validate(value);
+    ValidationResult result = mapSchema.compile().validate(value);
+
+    assertEquals(mapSchema.isCompiled(), true);
+    assertEquals(result.isValid(), false);
+    assertThat(result.getValue(), is(value));
+    assertEquals(result.getConstraintViolations(), expected.getConstraintViolations());
+    assertEquals(result.getConstraintViolations().get(0).getContext(), ".address.street");
+    assertEquals(result.getConstraintViolations().get(3).getContext(), ".nested1.nested2.inner2");
+    assertEquals(mapSchema.test(value), false);
+
+    result = mapSchema.validate(value, ValidationContext.failFast());
+    assertThat(result.getConstraintViolations(), hasSize(1));
+
+    // the guard slot of the inlined address schema skips its slots
+    value.remove("address");
+    assertEquals(mapSchema.validate(value).getConstraintViolations().get(0).getContext(), ".address");
+    assertThat(mapSchema.validate(value).getConstraintViolations(), hasSize(4));
+    assertEquals(mapSchema.test(value), false);
+  }
+
+  @Test
+  public void schema_compiled_reentrant() {
+    List<ValidationResult> inner = new ArrayList<>();
+    Schema<Map>[] self = new Schema[1];
+    self[0] = new MapSchema()
+      .field("name", String.class, stringRequired.and(rangeLength(2, 5)))
+      .field("child", Map.class, StandardConstraint.<Map>withPredicate(child -> {
+        if(child != null) {
+          inner.add(self[0].validate(child));
+        }
+        return true;
+      }, "child"))
+      .compile();
+    Map value = new HashMap() {{
+      put("name", "a");
+      put("child", new HashMap() {{
+        put("name", "abcdef");
+      }});
+    }};
+
+    ValidationResult result = self[0].validate(value);
+
+    assertThat(result.getConstraintViolations(), hasSize(1));
+    assertThat(result.getValue(), is(value));
+    assertThat(inner.get(0).getConstraintViolations(), hasSize(1));
+    assertEquals(inner.get(0).getConstraintViolations().get(0).getArguments()[0], 5);
+    assertEquals(self[0].validate((Map) value.get("child")).getConstraintViolations(), inner.get(0).getConstraintViolations());
+  }
+
+  @Test
+  public void schema_compiled_break_chains() {
+    Schema<Map> mapSchema = schema(
+      field("left", String.class, contains("a").and(contains("b").orElseBreak()).and(contains("c"))),
+      field("right", String.class, contains("a").and(contains("b").orElseBreak().and(contains("c")))),
+      field("guard", String.class, contains("b").orElseBreak().and(contains("c")).and(contains("d")))
+    );
+
+    for(String text : new String[] { "", "a", "b", "ab", "ac", "abc", "bd" }) {
+      Map value = new HashMap() {{
+        put("left", text);
+        put("right", text);
+        put("guard", text);
+      }};
+      Schema<Map> compiled = schema(
+        field("left", String.class, contains("a").and(contains("b").orElseBreak()).and(contains("c"))),
+        field("right", String.class, contains("a").and(contains("b").orElseBreak().and(contains("c")))),
+        field("guard", String.class, contains("b").orElseBreak().and(contains("c")).and(contains("d")))
+      ).compile();
+
+      assertEquals(compiled.validate(value).getConstraintViolations(), mapSchema.validate(value).getConstraintViolations());
+    }
+  }
+
+  @Test
+  public void schema_optimized_identical() {
+    Schema<Map> mapSchema = schema(
+      field("name", String.class, stringRequired.and(rangeLength(2, 5)).and(contains("b"))),
+      field("age", Integer.class, integerRequired.orElseBreak().and(greaterThan(18)).and(lessThan(30))),
+      field("alias", String.class, stringRequired.orElseBreak().and(s -> ValidationResult.valid()))
+    );
+
+    for(Object[] row : new Object[][] { { "abc", 25, "x" }, { "a", 15, null }, { null, null, "y" }, { "abcdefg", 40, "z" } }) {
+      Map value = new HashMap() {{
+        put("name", row[0]);
+        put("age", row[1]);
+        put("alias", row[2]);
+      }};
+      Schema<Map> optimized = schema(
+        field("name", String.class, stringRequired.and(rangeLength(2, 5)).and(contains("b"))),
+        field("age", Integer.class, integerRequired.orElseBreak().and(greaterThan(18)).and(lessThan(30))),
+        field("alias", String.class, stringRequired.orElseBreak().and(s -> ValidationResult.valid()))
+      ).optimize();
+
+      assertEquals(optimized.validate(value).getConstraintViolations(), mapSchema.validate(value).getConstraintViolations());
+      assertEquals(optimized.test(value), mapSchema.test(value));
+    }
+  }
+
+  @Test
+  public void schema_parallel_ordered() {
+    Map value = new HashMap();
+    Schema<Map> sequential = new MapSchema();
+    Schema<Map> parallel = new MapSchema().parallel(new ForkJoinPool(4), 3);
+    for(int i = 0; i < 40; i++) {
+      String name = "field" + i;
+      value.put(name, i % 3 == 0 ? "x" : "abc");
+      sequential.field(name, String.class, stringRequired.and(minLength(2)).and(contains("b")));
+      parallel.field(name, String.class, stringRequired.and(minLength(2)).and(contains("b")));
+    }
+    Schema<Map> outer = new MapSchema().field("inner", Map.class, parallel);
+
+    assertEquals(parallel.validate(value).getConstraintViolations(), sequential.validate(value).getConstraintViolations());
+    assertEquals(parallel.validate(value, ValidationContext.failFast()).getConstraintViolations(),
+      sequential.validate(value, ValidationContext.failFast()).getConstraintViolations());
+    assertEquals(parallel.validate(value, ValidationContext.maxViolations(5)).getConstraintViolations(),
+      sequential.validate(value, ValidationContext.maxViolations(5)).getConstraintViolations());
+    assertEquals(outer.validate(new HashMap() {{ put("inner", value); }}).getConstraintViolations().get(0).getContext(), ".inner.field0");
+  }
+
+  @Test
+  public void schema_parallel_truncated() {
+    Map value = new HashMap();
+    Schema<Map> sequential = new MapSchema();
+    Schema<Map> parallel = new MapSchema().parallel(new ForkJoinPool(4), 3);
+    for(int i = 0; i < 10; i++) {
+      String name = "field" + i;
+      value.put(name, i == 4 ? "x" : "abc");
+      sequential.field(name, String.class, stringRequired.and(minLength(2)).and(contains("b")));
+      parallel.field(name, String.class, stringRequired.and(minLength(2)).and(contains("b")));
+    }
+
+    ValidationResult expected = sequential.validate(value, ValidationContext.maxViolations(1));
+    ValidationResult result = parallel.validate(value, ValidationContext.maxViolations(1));
+
+    assertEquals(expected.isTruncated(), true);
+    assertEquals(result.isTruncated(), true);
+    assertEquals(result.getConstraintViolations(), expected.getConstraintViolations());
+  }
+
+  @Test
+  public void schema_parallel_nested_compiled() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    Set<ForkJoinPool> pools = ConcurrentHashMap.newKeySet();
+    Constraint<String> check = StandardConstraint.withPredicate(s -> {
+      if(Thread.currentThread() instanceof ForkJoinWorkerThread) {
+        pools.add(((ForkJoinWorkerThread) Thread.currentThread()).getPool());
+      }
+      return s != null;
+    }, "must be set");
+    Map value = new HashMap();
+    Schema<Map> parallel = new MapSchema().parallel(pool, 3);
+    for(int i = 0; i < 40; i++) {
+      value.put("field" + i, "abc");
+      parallel.field("field" + i, String.class, check.and(minLength(2)).and(contains("b")));
+    }
+    Schema<Map> outer = new MapSchema().field("inner", Map.class, parallel.compile()).compile();
+
+    assertEquals(outer.validate(new HashMap() {{ put("inner", value); }}).isValid(), true);
+    assertEquals(pools, Collections.singleton(pool));
+  }
+
+  @Test
+  public void schema_async_constraints_derived_value() {
+    AtomicInteger calls = new AtomicInteger();
+    Map<Integer, CompletableFuture<Boolean>> lookups = new ConcurrentHashMap<>();
+    Constraint<Integer> exists = AsyncConstraint.withPredicate(n -> {
+      calls.incrementAndGet();
+      return lookups.computeIfAbsent(n, k -> new CompletableFuture<>());
+    }, "should exist");
+    Schema<Map> mapSchema = new MapSchema()
+      .projection("n", value -> Integer.valueOf(((String) value.get("name")).length() * 1000), exists);
+
+    CompletableFuture<ValidationResult> result = mapSchema.validateAsync(new HashMap() {{ put("name", "abc"); }});
+    lookups.get(3000).complete(true);
+
+    assertEquals(result.isDone(), true);
+    assertEquals(result.join().isValid(), true);
+    assertThat(calls.get(), is(1));
+
+    // a value that never equals the one of the previous pass cannot settle
+    Deque<CompletableFuture<Boolean>> answers = new ArrayDeque<>();
+    Constraint<Object> slow = AsyncConstraint.withPredicate(o -> {
+      CompletableFuture<Boolean> answer = new CompletableFuture<>();
+      answers.add(answer);
+      return answer;
+    }, "should exist");
+    Schema<Map> unstable = new MapSchema().projection("o", value -> new Object(), slow);
+    CompletableFuture<ValidationResult> unsettled = unstable.validateAsync(new HashMap());
+    int completed = 0;
+    while(!unsettled.isDone()) {
+      answers.poll().complete(true);
+      completed++;
+    }
+    try {
+      unsettled.join();
+      fail();
+    } catch(CompletionException e) {
+      assertThat(e.getCause() instanceof IllegalStateException, is(true));
+    }
+    // every pass started a check, the last one was left running
+    assertThat(completed + answers.size(), is(64));
+  }
+
+  @Test
+  public void schema_async_constraints() {
+    Map<String, CompletableFuture<Boolean>> lookups = new ConcurrentHashMap<>();
+    Constraint<String> exists = AsyncConstraint.withPredicate(s -> lookups.computeIfAbsent(s, k -> new CompletableFuture<>()), "should exist");
+    Schema<Map> mapSchema = schema(
+      field("first", String.class, stringRequired.orElseBreak().and(exists).and(maxLength(3))),
+      field("second", String.class, stringRequired.orElseBreak().and(exists.orElseBreak().and(contains("x")))),
+      field("third", String.class, stringRequired.orElseBreak().and(exists))
+    );
+    Map value = new HashMap() {{
+      put("first", "abcd");
+      put("second", "abc");
+    }};
+
+    CompletableFuture<ValidationResult> result = mapSchema.validateAsync(value);
+
+    assertEquals(result.isDone(), false);
+    assertEquals(lookups.keySet(), new HashSet<>(Arrays.asList("abcd", "abc")));
+    lookups.get("abcd").complete(false);
+    assertEquals(result.isDone(), false);
+    lookups.get("abc").complete(true);
+    assertEquals(result.isDone(), true);
+    assertThat(result.join().getConstraintViolations(), hasSize(4));
+    assertEquals(result.join().getConstraintViolations(), mapSchema.validate(value).getConstraintViolations());
+  }
+
+  @Test
+  public void schema_batched_lookups() {
+    List<Set<String>> calls = new ArrayList<>();
+    Constraint<String> exists = BatchConstraint.withLookup((String id) -> id, ids -> {
+      calls.add(ids);
+      Map<String, Boolean> found = new HashMap<>();
+      ids.forEach(id -> found.put(id, !id.startsWith("x")));
+      return CompletableFuture.completedFuture(found);
+    }, "customer should exist");
+    Schema<Map> orderSchema = schema(
+      listField("customers", String.class, listConstraint(stringRequired.orElseBreak().and(exists)))
+    );
+    Map order = new HashMap() {{
+      put("customers", Arrays.asList("a", "x1", null, "b", "a"));
+    }};
+    Map other = new HashMap() {{
+      put("customers", Arrays.asList("c", "x2"));
+    }};
+
+    ValidationResult result = orderSchema.validateAsync(order).join();
+
+    assertThat(calls, hasSize(1));
+    assertEquals(calls.get(0), new HashSet<>(Arrays.asList("a", "x1", "b")));
+    assertThat(result.getConstraintViolations(), hasSize(2));
+    assertEquals(result.getConstraintViolations().get(0).getContext(), ".customers[1]");
+    assertEquals(result.getConstraintViolations().get(1).getContext(), ".customers[2]");
+
+    calls.clear();
+    List<ValidationResult> results = AsyncValidation.validateAll(orderSchema, Arrays.asList(order, other)).join();
+
+    assertThat(calls, hasSize(1));
+    assertThat(calls.get(0), hasSize(5));
+    assertEquals(results.get(0).getConstraintViolations(), result.getConstraintViolations());
+    assertEquals(results.get(1).getConstraintViolations().get(0).getContext(), ".customers[1]");
+  }
+
+  @Test
+  public void schema_batched_lookups_without_answer() {
+    List<Function<Set<String>, CompletionStage<Map<String, Boolean>>>> lookups = Arrays.asList(
+      ids -> null,
+      ids -> CompletableFuture.completedFuture(null));
+    for(Function<Set<String>, CompletionStage<Map<String, Boolean>>> lookup : lookups) {
+      Schema<Map> orderSchema = schema(
+        listField("customers", String.class, listConstraint(BatchConstraint.withLookup((String id) -> id, lookup, "customer should exist")))
+      );
+
+      CompletableFuture<ValidationResult> result = orderSchema.validateAsync(new HashMap() {{
+        put("customers", Arrays.asList("a", "b"));
+      }});
+
+      assertEquals(result.isCompletedExceptionally(), true);
+      try {
+        result.join();
+        fail();
+      } catch(CompletionException e) {
+        assertThat(e.getCause(), instanceOf(NullPointerException.class));
+      }
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void schema_compiled_frozen() {
+    new MapSchema()
+      .field("name", String.class, stringRequired)
+      .compile()
+      .field("age", Integer.class, integerRequired);
+  }
+
+  @Test
+  public void schema_memoized_constraint() {
+    AtomicInteger calls = new AtomicInteger();
+    MemoizingConstraint<String> checksum = StandardConstraint.<String>withPredicate(s -> {
+      calls.incrementAndGet();
+      return s.length() % 2 == 0;
+    }, "bad checksum").memoize(2);
+    Schema<Map> codesSchema = new MapSchema()
+      .listField("codes", String.class, listConstraint(checksum));
+
+    ValidationResult result = codesSchema.validate(new HashMap() {{
+      put("codes", Arrays.asList("ab", "abc", "ab", "abc"));
+    }});
+
+    assertThat(result.getConstraintViolations(), hasSize(2));
+    assertEquals(result.getConstraintViolations().get(0).getContext(), ".codes[1]");
+    assertEquals(result.getConstraintViolations().get(1).getContext(), ".codes[3]");
+    assertEquals(calls.get(), 2);
+    assertEquals(checksum.getHitCount(), 2);
+    assertEquals(checksum.getMissCount(), 2);
+
+    checksum.test("abcd");
+    checksum.test("abcde");
+    assertEquals(checksum.size(), 2);
+    assertEquals(checksum.getEvictionCount(), 2);
+  }
+
+  @Test(timeout = 10000)
+  public void schema_memoized_async_constraint() {
+    Map<String, CompletableFuture<Boolean>> lookups = new ConcurrentHashMap<>();
+    MemoizingConstraint<String> exists = AsyncConstraint.<String>withPredicate(s -> lookups.computeIfAbsent(s, k -> new CompletableFuture<>()), "should exist")
+      .memoize(10);
+    Schema<Map> mapSchema = new MapSchema()
+      .field("name", String.class, exists);
+
+    CompletableFuture<ValidationResult> result = mapSchema.validateAsync(new HashMap() {{ put("name", "abc"); }});
+
+    assertEquals(result.isDone(), false);
+    lookups.get("abc").complete(false);
+    assertEquals(result.isDone(), true);
+    assertThat(result.join().getConstraintViolations(), hasSize(1));
+    assertEquals(exists.size(), 0);
+  }
+
+  @Test
+  public void bean_schema_shared_references() {
+    AtomicInteger streetChecks = new AtomicInteger();
+    Schema<Address> addressSchema = new BeanSchema<>(Address.class)
+      .field("street", String.class, StandardConstraint.<String>withPredicate(street -> {
+        streetChecks.incrementAndGet();
+        return street.length() <= 10;
+      }, "street too long"))
+      .trackReferences();
+    Schema<Customer> customerSchema = new BeanSchema<>(Customer.class).trackReferences();
+    customerSchema
+      .field("address", Address.class, addressSchema)
+      .field("age", Integer.class, integerRequired.orElseBreak().and(greaterThan(18)))
+      .field("referrer", Customer.class, Value.<Customer>required().orElseBreak().and(customerSchema));
+
+    Address address = new Address();
+    address.setStreet("0123456789x");
+    Customer customer = new Customer();
+    customer.setAge(15);
+    customer.setAddress(address);
+    Customer referrer = new Customer();
+    referrer.setAge(30);
+    referrer.setAddress(address);
+    referrer.setReferrer(customer);
+    customer.setReferrer(referrer);
+
+    ValidationResult result = customerSchema.validate(customer);
+
+    assertThat(result.getConstraintViolations(), hasSize(3));
+    assertEquals(result.getConstraintViolations().get(0).getContext(), ".address.street");
+    assertEquals(result.getConstraintViolations().get(1).getContext(), ".age");
+    assertEquals(result.getConstraintViolations().get(2).getContext(), ".referrer.address.street");
+    assertEquals(streetChecks.get(), 1);
+    assertEquals(customerSchema.test(customer), false);
+
+    customerSchema.compile();
+    assertEquals(customerSchema.validate(customer).getConstraintViolations(), result.getConstraintViolations());
+  }
+
+  @Test
+  public void map_schema_json() {
+    Schema<Map> addressSchema = new MapSchema()
+      .field("street", String.class, stringRequired.and(rangeLength(2, 10)));
+    MapSchema customerSchema = new MapSchema();
+    customerSchema
+      .field("name", String.class, stringRequired.and(rangeLength(2, 5)))
+      .field("age", Integer.class, integerRequired.orElseBreak().and(greaterThan(18)))
+      .field("address", Map.class, Value.<Map>required().orElseBreak().and(addressSchema))
+      .listField("someList", Integer.class, Value.<Integer>listRequired().orElseBreak().and(listConstraint(max(5))));
+
+    String json = "{\"name\": \"a\\u0062cdef\", \"age\": 15, \"notes\": {\"x\": [1, {\"y\": \"}\"}], \"z\": null},"
+      + " \"address\": {\"street\": \"0123456789x\", \"city\": \"x\"}, \"someList\": [1, 7, -3], \"flag\": true}";
+    Map parsed = new HashMap() {{
+      put("name", "abcdef");
+      put("age", 15);
+      put("address", new HashMap() {{
+        put("street", "0123456789x");
+        put("city", "x");
+      }});
+      put("someList", Arrays.asList(1, 7, -3));
+    }};
+
+    ValidationResult result = customerSchema.validateJson(json.getBytes(StandardCharsets.UTF_8));
+
+    assertThat(result.getConstraintViolations(), hasSize(4));
+    assertEquals(result.getConstraintViolations(), customerSchema.validate(parsed).getConstraintViolations());
+    assertEquals(((Map) result.getValue()).keySet(), new HashSet<>(Arrays.asList("name", "age", "address", "someList")));
+    assertEquals(((Map) ((Map) result.getValue()).get("address")).keySet(), Collections.singleton("street"));
+
+    // the last two are only wrong inside a skipped member
+    for(String malformed : Arrays.asList("{\"name\": \"abc\"", "{\"notes\": {\"x\": [1}}, \"age\": 20}", "{\"notes\": [1]], \"age\": 20}")) {
+      try {
+        customerSchema.validateJson(malformed.getBytes(StandardCharsets.UTF_8));
+        throw new AssertionError("expected malformed JSON to be rejected: " + malformed);
+      } catch(IllegalArgumentException e) {
+        assertThat(e.getMessage().startsWith("Malformed JSON"), is(true));
+      }
+    }
+  }
+
+  @Test
+  public void map_schema_json_stream() throws IOException {
+    MapSchema customerSchema = new MapSchema();
+    customerSchema
+      .field("name", String.class, stringRequired.and(rangeLength(2, 5)))
+      .field("address", Map.class, Value.<Map>required().orElseBreak().and(new MapSchema()
+        .field("street", String.class, stringRequired.and(rangeLength(2, 10)))))
+      .listField("someList", Integer.class, listConstraint(max(5)));
+    StringBuilder notes = new StringBuilder();
+    for(int i = 0; i < 5000; i++) {
+      notes.append("\\\"note ").append(i);
+    }
+    String json = "{\"notes\": \"" + notes + "\", \"name\": \"a\\u0062cdef\","
+      + " \"address\": {\"street\": \"" + notes + "\"}, \"someList\": [1, 12345678, -3]}";
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+    // a stream handing out a few bytes at a time refills in the middle of every token
+    ValidationResult result = customerSchema.validateJson(new ByteArrayInputStream(bytes) {
+      @Override
+      public synchronized int read(byte[] b, int off, int len) {
+        return super.read(b, off, Math.min(len, 3));
+      }
+    });
+
+    assertEquals(result.getConstraintViolations(), customerSchema.validateJson(bytes).getConstraintViolations());
+    assertEquals((Map) result.getValue(), (Map) customerSchema.validateJson(bytes).getValue());
+    assertThat(result.getConstraintViolations(), hasSize(3));
+
+    byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+    String expected = null;
+    try {
+      customerSchema.validateJson(truncated);
+    } catch(IllegalArgumentException e) {
+      expected = e.getMessage();
+    }
+    try {
+      customerSchema.validateJson(new ByteArrayInputStream(truncated));
+      fail();
+    } catch(IllegalArgumentException e) {
+      assertEquals(e.getMessage(), expected);
+    }
+  }
+
+  @Test
+  public void ndjson_validation() throws IOException {
+    MapSchema customerSchema = new MapSchema();
+    customerSchema
+      .field("name", String.class, stringRequired.and(rangeLength(2, 5)))
+      .field("age", Integer.class, integerRequired.orElseBreak().and(greaterThan(18)));
+
+    Path file = Files.createTempFile("customers", ".ndjson");
+    try {
+      Files.write(file, Arrays.asList(
+        "{\"name\": \"abc\", \"age\": 25}",
+        "{\"name\": \"a\", \"age\": 25, \"other\": [1, 2, 3]}",
+        "",
+        "{\"name\": \"abc\", \"age\": 25",
+        "{\"name\": \"abcd\", \"age\": 30}",
+        "{\"age\": 12}",
+        "{\"name\": 5, \"age\": 25}",
+        "null"), StandardCharsets.UTF_8);
+
+      List<String> reported = new ArrayList<>();
+      NdjsonValidator.Summary summary = new NdjsonValidator(customerSchema, ForkJoinPool.commonPool(), 40)
+        .validate(file, (line, result) -> reported.add(line + ":" + result.getConstraintViolations().size()));
+
+      assertEquals(reported, Arrays.asList("2:1", "4:1", "6:4", "7:1", "8:1"));
+      assertEquals(summary.getLineCount(), 8);
+      assertEquals(summary.getValidCount(), 2);
+      assertEquals(summary.getInvalidCount(), 2);
+      assertEquals(summary.getMalformedCount(), 3);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void ndjson_validation_chunks_in_flight() throws IOException {
+    AtomicInteger validated = new AtomicInteger();
+    MapSchema schema = new MapSchema();
+    schema.field("age", Integer.class, StandardConstraint.<Integer>withPredicate(age -> {
+      validated.incrementAndGet();
+      return false;
+    }, "rejected"));
+
+    Path file = Files.createTempFile("lines", ".ndjson");
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      List<String> lines = new ArrayList<>();
+      for(int i = 0; i < 200; i++) {
+        lines.add("{\"age\": " + i + "}");
+      }
+      Files.write(file, lines, StandardCharsets.UTF_8);
+
+      // one line per chunk: no more than the pool's parallelism are validated ahead of the sink
+      AtomicInteger ahead = new AtomicInteger();
+      NdjsonValidator.Summary summary = new NdjsonValidator(schema, pool, 1)
+        .validate(file, (line, result) -> ahead.accumulateAndGet((int) (validated.get() - line), Math::max));
+
+      assertEquals(summary.getInvalidCount(), 200);
+      assertThat(ahead.get() <= 1, is(true));
+    } finally {
+      pool.shutdown();
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void schema_batch_validation() {
+    Schema<Customer> customerSchema = new BeanSchema<>(Customer.class)
+      .field("name", String.class, stringRequired.and(rangeLength(2, 5)))
+      .field("age", Integer.class, integerRequired.orElseBreak().and(greaterThan(18)));
+
+    List<Customer> customers = new ArrayList<>();
+    for(int i = 0; i < 1000; i++) {
+      Customer customer = new Customer();
+      customer.setName(i % 3 == 0 ? "a" : "abc");
+      customer.setAge(20 + i % 7);
+      customers.add(customer);
+    }
+
+    List<ValidationResult> sequential = customerSchema.validateAll(customers);
+    List<ValidationResult> parallel = customerSchema.validateAll(customers.parallelStream());
+    Map<Boolean, List<ValidationResult>> partition = customerSchema.partitionAll(customers.parallelStream());
+
+    assertThat(parallel, hasSize(1000));
+    for(int i = 0; i < customers.size(); i++) {
+      assertThat(sequential.get(i).getValue(), sameInstance(customers.get(i)));
+      assertThat(parallel.get(i).getValue(), sameInstance(customers.get(i)));
+      assertEquals(parallel.get(i).getConstraintViolations(), sequential.get(i).getConstraintViolations());
+    }
+    assertThat(partition.get(false), hasSize(334));
+    assertThat(partition.get(true), hasSize(666));
+    assertThat(partition.get(false).get(1).getValue(), sameInstance(customers.get(3)));
+    assertThat(customerSchema.validateAll(customers.spliterator(), true), hasSize(1000));
+  }
+
+  @Test
+  public void schema_validation_processor() throws Exception {
+    Schema<Customer> customerSchema = new BeanSchema<>(Customer.class)
+      .field("age", Integer.class, integerRequired.orElseBreak().and(greaterThan(18)));
+    ValidationProcessor<Customer> processor = new ValidationProcessor<>(customerSchema, ForkJoinPool.commonPool(), 4, 8);
+
+    List<Integer> ages = new ArrayList<>();
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    processor.subscribe(new Subscriber<ValidationResult>() {
+      private Subscription subscription;
+
+      @Override
+      public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(3);
+      }
+
+      @Override
+      public void onNext(ValidationResult result) {
+        ages.add(((Customer) result.getValue()).getAge());
+        if(ages.size() % 3 == 0) {
+          subscription.request(3);
+        }
+      }
+
+      @Override
+      public void onError(Throwable error) {
+        done.completeExceptionally(error);
+      }
+
+      @Override
+      public void onComplete() {
+        done.complete(null);
+      }
+    });
+
+    AtomicInteger requested = new AtomicInteger();
+    AtomicInteger maxOutstanding = new AtomicInteger();
+    processor.onSubscribe(new Subscription() {
+      @Override
+      public void request(long n) {
+        maxOutstanding.accumulateAndGet(requested.addAndGet((int) n) - ages.size(), Math::max);
+      }
+
+      @Override
+      public void cancel() {
+      }
+    });
+    for(int i = 0; i < 100; i++) {
+      while(requested.get() <= i) {
+        Thread.yield();
+      }
+      Customer customer = new Customer();
+      customer.setAge(i);
+      processor.onNext(customer);
+    }
+    processor.onComplete();
+
+    done.get(10, TimeUnit.SECONDS);
+    assertThat(ages, hasSize(100));
+    for(int i = 0; i < 100; i++) {
+      assertEquals((int) ages.get(i), i);
+    }
+    assertThat(maxOutstanding.get() <= 8, is(true));
+  }
+
+  @Test
+  public void schema_validation_processor_demand() {
+    Schema<Customer> customerSchema = new BeanSchema<>(Customer.class)
+      .field("age", Integer.class, integerRequired.orElseBreak().and(greaterThan(18)));
+    // everything runs on the submitting thread, so each step is finished when submit returns
+    SubmissionPublisher<Customer> publisher = new SubmissionPublisher<>(Runnable::run, 32);
+    ValidationProcessor<Customer> processor = new ValidationProcessor<>(customerSchema, Runnable::run, 1, 8);
+    FlowAdapters.toPublisher(publisher).subscribe(processor);
+
+    List<Integer> ages = new ArrayList<>();
+    Subscription[] downstream = new Subscription[1];
+    AtomicInteger completed = new AtomicInteger();
+    processor.subscribe(new Subscriber<ValidationResult>() {
+      @Override
+      public void onSubscribe(Subscription subscription) {
+        downstream[0] = subscription;
+      }
+
+      @Override
+      public void onNext(ValidationResult result) {
+        ages.add(((Customer) result.getValue()).getAge());
+      }
+
+      @Override
+      public void onError(Throwable error) {
+        throw new AssertionError(error);
+      }
+
+      @Override
+      public void onComplete() {
+        completed.incrementAndGet();
+      }
+    });
+
+    downstream[0].request(5);
+    for(int i = 0; i < 20; i++) {
+      Customer customer = new Customer();
+      customer.setAge(i);
+      publisher.submit(customer);
+    }
+
+    assertEquals(ages, Arrays.asList(0, 1, 2, 3, 4));
+    // taken from the publisher but not yet emitted: no more than the buffer size
+    assertThat(20 - publisher.estimateMaximumLag() - ages.size() <= 8, is(true));
+
+    downstream[0].request(15);
+    publisher.close();
+
+    assertThat(ages, hasSize(20));
+    for(int i = 0; i < 20; i++) {
+      assertEquals((int) ages.get(i), i);
+    }
+    assertEquals(completed.get(), 1);
+  }
+
+  @Test
+  public void schema_validation_processor_cancel() {
+    Schema<Customer> customerSchema = new BeanSchema<>(Customer.class)
+      .field("age", Integer.class, integerRequired.orElseBreak().and(greaterThan(18)));
+    SubmissionPublisher<Customer> publisher = new SubmissionPublisher<>(Runnable::run, 32);
+    ValidationProcessor<Customer> processor = new ValidationProcessor<>(customerSchema, Runnable::run, 1, 8);
+    FlowAdapters.toPublisher(publisher).subscribe(processor);
+
+    List<Integer> ages = new ArrayList<>();
+    processor.subscribe(new Subscriber<ValidationResult>() {
+      private Subscription subscription;
+
+      @Override
+      public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+      }
+
+      @Override
+      public void onNext(ValidationResult result) {
+        ages.add(((Customer) result.getValue()).getAge());
+        if(ages.size() == 3) {
+          subscription.cancel();
+        }
+      }
+
+      @Override
+      public void onError(Throwable error) {
+        throw new AssertionError(error);
+      }
+
+      @Override
+      public void onComplete() {
+        throw new AssertionError("completed after cancel");
+      }
+    });
+
+    assertEquals(publisher.getNumberOfSubscribers(), 1);
+    for(int i = 0; i < 10; i++) {
+      Customer customer = new Customer();
+      customer.setAge(i);
+      publisher.submit(customer);
+    }
+    publisher.close();
+
+    assertEquals(ages, Arrays.asList(0, 1, 2));
+    assertEquals(publisher.getNumberOfSubscribers(), 0);
+
+    // a second subscriber is refused through onError
+    List<Throwable> errors = new ArrayList<>();
+    processor.subscribe(new Subscriber<ValidationResult>() {
+      @Override
+      public void onSubscribe(Subscription subscription) {
+      }
+
+      @Override
+      public void onNext(ValidationResult result) {
+      }
+
+      @Override
+      public void onError(Throwable error) {
+        errors.add(error);
+      }
+
+      @Override
+      public void onComplete() {
+      }
+    });
+    assertThat(errors, hasSize(1));
+    assertThat(errors.get(0), instanceOf(IllegalStateException.class));
+  }
+
+  @Test
+  public void schema_revalidation() {
+    AtomicInteger elementChecks = new AtomicInteger();
+    Constraint<Integer> small = StandardConstraint.withPredicate(i -> {
+      elementChecks.incrementAndGet();
+      return i <= 5;
+    }, "too large");
+    Schema<Map> addressSchema = new MapSchema()
+      .field("street", String.class, stringRequired.and(rangeLength(2, 10)))
+      .field("city", String.class, stringRequired);
+    Schema<Map> customerSchema = new MapSchema()
+      .field("name", String.class, stringRequired.and(rangeLength(2, 5)))
+      .field("address", Map.class, Value.<Map>required().orElseBreak().and(addressSchema))
+      .listField("someList", Integer.class, Value.<Integer>listRequired().orElseBreak().and(listConstraint(small)));
+
+    Map address = new HashMap();
+    address.put("street", "0123456789x");
+    List<Integer> someList = new ArrayList<>();
+    for(int i = 0; i < 1000; i++) {
+      someList.add(i % 100 == 0 ? 9 : 1);
+    }
+    Map customer = new HashMap();
+    customer.put("name", "a");
+    customer.put("address", address);
+    customer.put("someList", someList);
+
+    ValidationResult previous = customerSchema.validate(customer);
+    assertThat(previous.getConstraintViolations(), hasSize(13));
+
+    address.put("street", "abc");
+    someList.set(100, 1);
+    someList.set(101, 7);
+    elementChecks.set(0);
+    ViolationPath list = ViolationPath.ROOT.field("someList");
+    ValidationResult result = customerSchema.revalidate(customer, previous,
+      Arrays.asList(ViolationPath.ROOT.field("address").field("street"), list.index(100), list.index(101)));
+
+    assertEquals(elementChecks.get(), 2);
+    assertThat(result.getConstraintViolations(), hasSize(12));
+    assertEquals(result.getConstraintViolations(), customerSchema.validate(customer).getConstraintViolations());
+  }
+
+  @Test
+  public void schema_field_mask() {
+    Set<String> read = ConcurrentHashMap.newKeySet();
+    MapSchema addressSchema = new MapSchema() {
+      @Override
+      public <T> Function<Map, T> fieldGetter(String name, Class<T> fieldType) {
+        return value -> {
+          read.add(name);
+          return (T) value.get(name);
+        };
+      }
+    };
+    addressSchema
+      .field("street", String.class, stringRequired.and(rangeLength(2, 10)))
+      .field("city", String.class, stringRequired);
+    Schema<Map> customerSchema = new MapSchema()
+      .field("name", String.class, stringRequired.and(rangeLength(2, 5)))
+      .field("address", Map.class, Value.<Map>required().orElseBreak().and(addressSchema))
+      .listField("someList", Integer.class, Value.<Integer>listRequired().orElseBreak().and(listConstraint(max(5))));
+
+    Map customer = new HashMap() {{
+      put("name", "a");
+      put("address", new HashMap() {{
+        put("street", "0123456789x");
+      }});
+      put("someList", Arrays.asList(1, 7, 9));
+    }};
+
+    ValidationResult result = customerSchema.validate(customer, FieldMask.parse(".address.street", ".someList[2]"));
+
+    assertThat(result.getConstraintViolations(), hasSize(2));
+    assertEquals(result.getConstraintViolations().get(0).getContext(), ".address.street");
+    assertEquals(result.getConstraintViolations().get(1).getContext(), ".someList[2]");
+    assertEquals(read, Collections.singleton("street"));
+
+    ValidationResult whole = customerSchema.validate(customer, FieldMask.of(ViolationPath.ROOT));
+    assertEquals(whole.getConstraintViolations(), customerSchema.validate(customer).getConstraintViolations());
+  }
+
+  @Test
+  public void schema_field_mask_optimized() {
+    Set<String> read = ConcurrentHashMap.newKeySet();
+    Supplier<Schema<Map>> schema = () -> {
+      MapSchema addressSchema = new MapSchema() {
+        @Override
+        public <T> Function<Map, T> fieldGetter(String name, Class<T> fieldType) {
+          return value -> {
+            read.add(name);
+            return (T) value.get(name);
+          };
+        }
+      };
+      addressSchema
+        .field("street", String.class, stringRequired.and(rangeLength(2, 10)))
+        .field("city", String.class, stringRequired);
+      return new MapSchema()
+        // a fused run of checks before the nested schema
+        .field("address", Map.class, Value.<Map>required().and(Value.required()).and(addressSchema))
+        // a flattened chain of three
+        .field("billing", Map.class, Value.<Map>required().orElseBreak().and(addressSchema).and(Value.required()));
+    };
+    Map customer = new HashMap() {{
+      put("address", new HashMap() {{
+        put("street", "0123456789x");
+      }});
+      put("billing", new HashMap() {{
+        put("street", "x");
+      }});
+    }};
+    FieldMask mask = FieldMask.parse(".address.street", ".billing.street");
+
+    ValidationResult expected = schema.get().validate(customer, mask);
+    read.clear();
+    ValidationResult result = schema.get().optimize().validate(customer, mask);
+
+    assertThat(result.getConstraintViolations(), hasSize(2));
+    assertEquals(result.getConstraintViolations(), expected.getConstraintViolations());
+    assertEquals(read, Collections.singleton("street"));
+  }
+
+  @Test
+  public void schema_optimized() {
+    Map<String, Object> valid = new HashMap<>();
+    valid.put("name", "abc");
+    valid.put("code", "x-12");
+    valid.put("age", 30);
+    valid.put("tags", Arrays.asList("ab", "abc"));
+    Map<String, Object> invalid = new HashMap<>();
+    invalid.put("code", "0123456789");
+    invalid.put("age", 200);
+    invalid.put("tags", Arrays.asList("a", null, "abcdefgh"));
+
+    Supplier<Schema<Map>> schema = () -> new MapSchema()
+      .field("name", String.class, stringRequired.and(rangeLength(2, 5)))
+      .field("code", String.class, stringRequired.and(minLength(2)).and(maxLength(5)).and(contains("-"))
+        .and(StandardConstraint.withPredicate(s -> s.startsWith("x"), "must start with x")))
+      .field("age", Integer.class, integerRequired.orElseBreak().and(integerRange(0, 120)).and(lessThan(100)))
+      .listField("tags", String.class, listConstraint(stringRequired.and(minLength(2).or(maxLength(0)).or(contains("*")))));
+
+    Schema<Map> optimized = schema.get().optimize();
+    for(Map<String, Object> value : Arrays.asList(valid, invalid)) {
+      for(Supplier<ValidationContext> context : Arrays.<Supplier<ValidationContext>>asList(ValidationContext::new, ValidationContext::failFast)) {
+        assertEquals(optimized.validate(value, context.get()).getConstraintViolations(),
+          schema.get().validate(value, context.get()).getConstraintViolations());
+      }
+      assertEquals(optimized.test(value), schema.get().test(value));
+    }
+    assertThat(optimized.validate(invalid).getConstraintViolations(), hasSize(15));
+    assertThat(ConstraintOptimizer.optimize(stringRequired.and(rangeLength(2, 5))) instanceof FusedChecksConstraint, is(true));
+  }
+
+  @Test
+  public void schema_adaptive_order() {
+    AtomicInteger nameChecks = new AtomicInteger();
+    Schema<Map> schema = new MapSchema()
+      .field("name", String.class, StandardConstraint.withPredicate(s -> nameChecks.incrementAndGet() > 0, "never fails"))
+      .field("zip", String.class, stringRequired)
+      .failFast()
+      .adaptive(4);
+    Map<String, Object> value = new HashMap<>();
+    value.put("name", "abc");
+
+    assertEquals(schema.getEvaluationOrder(), Arrays.asList("name", "zip"));
+    IntStream.range(0, 4000).parallel().forEach(i -> assertThat(schema.validate(value).getConstraintViolations(), hasSize(1)));
+    assertEquals(schema.getEvaluationOrder(), Arrays.asList("zip", "name"));
+
+    nameChecks.set(0);
+    ValidationResult result = schema.validate(value);
+    assertEquals(result.getConstraintViolations().get(0).getContext(), ".zip");
+    assertThat(nameChecks.get(), is(0));
+
+    // validations that are not fail-fast keep the declared order
+    Schema<Map> lenient = new MapSchema()
+      .field("name", String.class, stringRequired)
+      .field("zip", String.class, stringRequired)
+      .adaptive(1);
+    IntStream.range(0, 100).forEach(i -> lenient.validate(value));
+    assertEquals(lenient.validate(new HashMap<>()).getConstraintViolations().get(0).getContext(), ".name");
+  }
 }
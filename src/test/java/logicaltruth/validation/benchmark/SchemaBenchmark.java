@@ -0,0 +1,181 @@
+package logicaltruth.validation.benchmark;
+
+import logicaltruth.validation.constraint.Constraint;
+import logicaltruth.validation.constraint.common.Value;
+import logicaltruth.validation.custom.Address;
+import logicaltruth.validation.custom.Customer;
+import com.sun.management.ThreadMXBean;
+import logicaltruth.validation.schema.BeanSchema;
+import logicaltruth.validation.schema.MapSchema;
+import logicaltruth.validation.schema.Schema;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import static logicaltruth.validation.constraint.common.CollectionValidators.listConstraint;
+import static logicaltruth.validation.constraint.common.IntegerConstraints.*;
+import static logicaltruth.validation.constraint.common.StringConstraints.*;
+
+/**
+ * Rough throughput and allocation of the {@code Customer} schema used in the tests. Not run as part
+ * of the build; run each mode in its own JVM so they do not share profiles: {@code java -cp
+ * target/classes:target/test-classes logicaltruth.validation.benchmark.SchemaBenchmark [compiled|fields|optimized|json]}.
+ * The fields mode is the compiled schema reading fields instead of calling getters; it and the
+ * compiled mode also time the bare reads.
+ * The json mode validates a document with an unread subtree from bytes and from a stream, against a
+ * schema that reads the whole document.
+ */
+public class SchemaBenchmark {
+  private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+  private static final int WARMUP = 200_000;
+  private static final int ITERATIONS = 2_000_000;
+  private static final int ROUNDS = 5;
+
+  public static void main(String[] args) {
+    Customer valid = customer("abcde", 25, "0123456789");
+    Customer invalid = customer("abcdef", 15, "0123456789x");
+
+    String mode = args.length > 0 ? args[0] : "interpreted";
+    if("json".equals(mode)) {
+      json();
+    } else if("compiled".equals(mode)) {
+      run(mode, () -> customerSchema().compile(), valid, invalid);
+      reads("getters", BeanSchema.Access.PROPERTY, valid);
+    } else if("fields".equals(mode)) {
+      run(mode, () -> customerSchema(BeanSchema.Access.FIELD).compile(), valid, invalid);
+      reads("field reads", BeanSchema.Access.FIELD, valid);
+    } else if("optimized".equals(mode)) {
+      run(mode, () -> customerSchema().optimize(), valid, invalid);
+    } else {
+      run(mode, SchemaBenchmark::customerSchema, valid, invalid);
+    }
+  }
+
+  static Schema<Customer> customerSchema() {
+    return customerSchema(BeanSchema.Access.PROPERTY);
+  }
+
+  static Schema<Customer> customerSchema(BeanSchema.Access access) {
+    Schema<Address> addressSchema = new BeanSchema<>(Address.class, access)
+      .field("street", String.class, stringRequired.and(maxLength(10)));
+
+    return new BeanSchema<>(Customer.class, access)
+      .field("name", String.class, stringRequired.and(rangeLength(2, 5)))
+      .field("age", Integer.class, integerRequired.orElseBreak().and(greaterThan(18)))
+      .listField("someList", Integer.class, Value.<Integer>listRequired().orElseBreak().and(listConstraint(max(5))))
+      .field("address", Address.class, Value.<Address>required().orElseBreak().and(addressSchema));
+  }
+
+  static Customer customer(String name, int age, String street) {
+    Address address = new Address();
+    address.setStreet(street);
+
+    Customer customer = new Customer();
+    customer.setName(name);
+    customer.setAge(age);
+    customer.setSomeList(Arrays.asList(1, 3, 4, 2));
+    customer.setAddress(address);
+    return customer;
+  }
+
+  private static void run(String label, Supplier<Schema<Customer>> factory, Customer valid, Customer invalid) {
+    Constraint<Customer> schema = factory.get();
+    IntSupplier validOp = () -> schema.validate(valid).getConstraintViolations().size();
+    IntSupplier invalidOp = () -> schema.validate(invalid).getConstraintViolations().size();
+    loop(validOp, WARMUP);
+    loop(invalidOp, WARMUP);
+    double[] validCost = best(validOp, ITERATIONS);
+    double[] invalidCost = best(invalidOp, ITERATIONS);
+    System.out.printf("%-12s valid: %8.1f ns/op %8.1f B/op   invalid: %8.1f ns/op %8.1f B/op%n", label,
+      validCost[0], validCost[1], invalidCost[0], invalidCost[1]);
+  }
+
+  // reads of three properties alone, to compare getter lambdas and field readers across two runs
+  private static void reads(String label, BeanSchema.Access access, Customer customer) {
+    BeanSchema<Customer> schema = new BeanSchema<>(Customer.class, access);
+    Function<Customer, String> name = schema.fieldGetter("name", String.class);
+    Function<Customer, Integer> age = schema.fieldGetter("age", Integer.class);
+    Function<Customer, Address> address = schema.fieldGetter("address", Address.class);
+    IntSupplier op = () -> name.apply(customer).length() + age.apply(customer) + (address.apply(customer) == null ? 0 : 1);
+    loop(op, WARMUP * 10);
+    double[] cost = best(op, ITERATIONS * 10);
+    System.out.printf("%-12s %8.1f ns/op %8.1f B/op%n", label, cost[0], cost[1]);
+  }
+
+  private static void json() {
+    StringBuilder history = new StringBuilder("[");
+    for(int i = 0; i < 50; i++) {
+      history.append(i > 0 ? ", " : "").append("{\"id\": ").append(i).append(", \"note\": \"order ").append(i).append("\"}");
+    }
+    byte[] json = ("{\"name\": \"abcde\", \"age\": 25, \"someList\": [1, 3, 4, 2],"
+      + " \"address\": {\"street\": \"0123456789\", \"city\": \"x\"}, \"history\": " + history + "]}")
+      .getBytes(StandardCharsets.UTF_8);
+    MapSchema schema = jsonSchema();
+    MapSchema full = jsonSchema();
+    full.constraint("whole", Value.<Map>required());
+
+    json("bytes", () -> schema.validateJson(json).getConstraintViolations().size());
+    json("stream", () -> {
+      try {
+        return schema.validateJson(new ByteArrayInputStream(json)).getConstraintViolations().size();
+      } catch(IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    json("full", () -> full.validateJson(json).getConstraintViolations().size());
+  }
+
+  private static void json(String label, IntSupplier op) {
+    loop(op, WARMUP / 10);
+    double[] cost = best(op, ITERATIONS / 10);
+    System.out.printf("%-12s %8.1f ns/op %8.1f B/op%n", label, cost[0], cost[1]);
+  }
+
+  static MapSchema jsonSchema() {
+    Schema<Map> addressSchema = new MapSchema()
+      .field("street", String.class, stringRequired.and(maxLength(10)));
+    MapSchema schema = new MapSchema();
+    schema
+      .field("name", String.class, stringRequired.and(rangeLength(2, 5)))
+      .field("age", Integer.class, integerRequired.orElseBreak().and(greaterThan(18)))
+      .listField("someList", Integer.class, Value.<Integer>listRequired().orElseBreak().and(listConstraint(max(5))))
+      .field("address", Map.class, Value.<Map>required().orElseBreak().and(addressSchema));
+    return schema;
+  }
+
+  // the fastest of a few rounds, as other load on the machine only ever slows a round down
+  private static double[] best(IntSupplier op, int iterations) {
+    double[] best = loop(op, iterations);
+    for(int i = 1; i < ROUNDS; i++) {
+      double[] cost = loop(op, iterations);
+      if(cost[0] < best[0]) {
+        best = cost;
+      }
+    }
+    return best;
+  }
+
+  // nanoseconds and bytes allocated by the current thread per operation
+  private static double[] loop(IntSupplier op, int iterations) {
+    int violations = 0;
+    long allocated = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    long start = System.nanoTime();
+    for(int i = 0; i < iterations; i++) {
+      violations += op.getAsInt();
+    }
+    long elapsed = System.nanoTime() - start;
+    allocated = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+    if(violations < 0) {
+      throw new AssertionError();
+    }
+    return new double[] {(double) elapsed / iterations, (double) allocated / iterations};
+  }
+}
@@ -1,7 +1,10 @@
 package logicaltruth.validation.custom;
 
 public class Address {
+  public String zip;
   private String street;
+  private boolean verified;
+  private int number;
 
   public String getStreet() {
     return street;
@@ -10,4 +13,24 @@ public class Address {
   public void setStreet(String street) {
     this.street = street;
   }
+
+  public int getNumber() {
+    return number;
+  }
+
+  public void setNumber(int number) {
+    this.number = number;
+  }
+
+  public boolean isVerified() {
+    return verified;
+  }
+
+  public void setVerified(boolean verified) {
+    this.verified = verified;
+  }
+
+  public String country() {
+    return zip == null ? null : "RO";
+  }
 }
@@ -14,6 +14,7 @@ public class Customer {
 
   private Address address;
   private Map address2;
+  private Customer referrer;
 
   public String getName() {
     return name;
@@ -86,4 +87,12 @@ public class Customer {
   public void setAddress2(Map address2) {
     this.address2 = address2;
   }
+
+  public Customer getReferrer() {
+    return referrer;
+  }
+
+  public void setReferrer(Customer referrer) {
+    this.referrer = referrer;
+  }
 }